@@ -1,5 +1,6 @@
 package com.rxliuli.example.ftpdemo.common.ftp;
 
+import com.rxliuli.example.ftpdemo.common.util.FileChannelUtil;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
 /**
@@ -9,6 +10,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
  * @author rxliuli
  */
 public abstract class BaseFtpClientConfig {
+    public static final long DEFAULT_MAX_BYTES_PER_SECOND = 0L;
     /**
      * ftp 登录账号
      */
@@ -25,6 +27,22 @@ public abstract class BaseFtpClientConfig {
      * 端口号
      */
     private Integer port;
+    /**
+     * 连接池配置
+     */
+    private FtpPoolConfig poolConfig = new FtpPoolConfig();
+    /**
+     * 传输文件时的缓冲区大小，包括本地文件的读写
+     */
+    private Integer bufferSize = FileChannelUtil.DEFAULT_BUFFER_SIZE;
+    /**
+     * 批量传输时的并发数，不应超过连接池的最大连接数
+     */
+    private Integer bulkParallelism = BulkTransfer.DEFAULT_PARALLELISM;
+    /**
+     * 这个服务器所有传输加起来的最大速率（字节/秒），小于等于 0 表示只受全局速率的限制
+     */
+    private Long maxBytesPerSecond = DEFAULT_MAX_BYTES_PER_SECOND;
 
     public BaseFtpClientConfig() {
     }
@@ -72,6 +90,42 @@ public abstract class BaseFtpClientConfig {
         return this;
     }
 
+    public FtpPoolConfig getPoolConfig() {
+        return poolConfig;
+    }
+
+    public BaseFtpClientConfig setPoolConfig(FtpPoolConfig poolConfig) {
+        this.poolConfig = poolConfig;
+        return this;
+    }
+
+    public Integer getBufferSize() {
+        return bufferSize;
+    }
+
+    public BaseFtpClientConfig setBufferSize(Integer bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    public Integer getBulkParallelism() {
+        return bulkParallelism;
+    }
+
+    public BaseFtpClientConfig setBulkParallelism(Integer bulkParallelism) {
+        this.bulkParallelism = bulkParallelism;
+        return this;
+    }
+
+    public Long getMaxBytesPerSecond() {
+        return maxBytesPerSecond;
+    }
+
+    public BaseFtpClientConfig setMaxBytesPerSecond(Long maxBytesPerSecond) {
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        return this;
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this);
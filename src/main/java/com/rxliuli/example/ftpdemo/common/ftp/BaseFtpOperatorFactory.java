@@ -1,5 +1,6 @@
 package com.rxliuli.example.ftpdemo.common.ftp;
 
+import com.rxliuli.example.ftpdemo.common.ftp.async.AsyncFtpOperator;
 import com.rxliuli.example.ftpdemo.common.ftp.basic.BasicFtpClientConfig;
 import com.rxliuli.example.ftpdemo.common.ftp.basic.BasicFtpOperatorFactory;
 import com.rxliuli.example.ftpdemo.common.ftp.sftp.SftpClientConfig;
@@ -34,6 +35,18 @@ public interface BaseFtpOperatorFactory {
         }
     }
 
+    /**
+     * 获取一个异步的 ftp 操作对象
+     * io 线程数与连接池的最大连接数相同，连接池不限制连接数时使用默认的连接数
+     *
+     * @param baseFtpClientConfig 基本的 ftp 配置类
+     * @return 异步的 ftp 操作对象
+     */
+    static AsyncFtpOperator getAsyncInstance(BaseFtpClientConfig baseFtpClientConfig) {
+        final int maxTotal = baseFtpClientConfig.getPoolConfig().getMaxTotal();
+        return AsyncFtpOperator.of(getInstance(baseFtpClientConfig), maxTotal > 0 ? maxTotal : FtpPoolConfig.DEFAULT_MAX_TOTAL);
+    }
+
     /**
      * 创建一个 ftp 操作对象
      *
@@ -0,0 +1,86 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferPriority;
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferScheduler;
+import com.rxliuli.example.ftpdemo.common.util.ThreadUtil;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 批量传输的异步结果
+ * 每个文件对应一个 {@link CompletableFuture}，另外提供一个所有文件都完成后才完成的汇总结果
+ * 每一批文件都在自己的固定大小的线程池中以 {@link TransferPriority#BULK} 优先级执行，全部完成后线程池自动关闭，
+ * 所以并发数限制的是每一批传输，而不是同一个操作对象上的所有批量传输
+ *
+ * @param <K> 每个文件的标识，上传时是本地文件，下载时是远程文件路径
+ * @author rxliuli
+ */
+public class BulkTransfer<K> {
+    /**
+     * 默认的并发数
+     */
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private final Map<K, CompletableFuture<Boolean>> items;
+    private final CompletableFuture<Boolean> all;
+
+    private BulkTransfer(Map<K, CompletableFuture<Boolean>> items) {
+        this.items = Collections.unmodifiableMap(items);
+        //任何一个文件失败（包括抛出异常）汇总结果都为 false
+        this.all = CompletableFuture.allOf(items.values().stream()
+                .map(future -> future.handle((result, e) -> e == null && Boolean.TRUE.equals(result)))
+                .toArray(CompletableFuture[]::new))
+                .thenApply(v -> items.values().stream().allMatch(future -> !future.isCompletedExceptionally() && future.join()));
+    }
+
+    /**
+     * 开始批量传输
+     *
+     * @param tasks       每个文件的传输任务，返回是否成功
+     * @param parallelism 并发数
+     * @param <K>         每个文件的标识
+     * @return 批量传输的异步结果
+     */
+    static <K> BulkTransfer<K> start(Map<K, Supplier<Boolean>> tasks, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        final Map<K, CompletableFuture<Boolean>> items = new LinkedHashMap<>();
+        if (tasks.isEmpty()) {
+            return new BulkTransfer<>(items);
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()), ThreadUtil.daemonThreadFactory("ftp-bulk-"));
+        tasks.forEach((key, task) -> items.put(key, CompletableFuture.supplyAsync(() -> TransferScheduler.withPriority(TransferPriority.BULK, task), executor)));
+        final BulkTransfer<K> transfer = new BulkTransfer<>(items);
+        transfer.all.whenComplete((result, e) -> executor.shutdown());
+        return transfer;
+    }
+
+    /**
+     * @return 每个文件的异步结果，顺序与传入的顺序相同
+     */
+    public Map<K, CompletableFuture<Boolean>> getItems() {
+        return items;
+    }
+
+    /**
+     * @param key 文件的标识
+     * @return 指定文件的异步结果
+     */
+    public CompletableFuture<Boolean> get(K key) {
+        return items.get(key);
+    }
+
+    /**
+     * @return 汇总的异步结果，所有文件都完成后完成，全部成功时为 true
+     */
+    public CompletableFuture<Boolean> getAll() {
+        return all;
+    }
+}
@@ -0,0 +1,86 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+
+/**
+ * 传输时同步计算的校验算法
+ * 同时记录了服务器端计算同一个摘要的方式：HASH 命令（draft-bryan-ftpext-hash）中的算法名称，以及旧式的 XCRC/XMD5 命令
+ *
+ * @author rxliuli
+ */
+public enum ChecksumAlgorithm {
+    /**
+     * CRC-32，与 XCRC 命令的结果相同
+     */
+    CRC32("CRC32", "XCRC") {
+        @Override
+        public MessageDigest newDigest() {
+            return new ChecksumDigest(name(), new CRC32());
+        }
+    },
+    /**
+     * CRC-32C，计算最快，但是服务器一般不支持，只能返回给调用方
+     */
+    CRC32C(null, null) {
+        @Override
+        public MessageDigest newDigest() {
+            return new ChecksumDigest(name(), new Crc32c());
+        }
+    },
+    /**
+     * MD5，与 XMD5 命令的结果相同
+     */
+    MD5("MD5", "XMD5") {
+        @Override
+        public MessageDigest newDigest() {
+            return messageDigest("MD5");
+        }
+    },
+    /**
+     * SHA-256，只能通过 HASH 命令在服务器端校验
+     */
+    SHA256("SHA-256", null) {
+        @Override
+        public MessageDigest newDigest() {
+            return messageDigest("SHA-256");
+        }
+    };
+
+    /**
+     * HASH 命令中的算法名称，为 null 时表示不支持
+     */
+    private final String hashName;
+    /**
+     * 旧式的校验命令，为 null 时表示没有
+     */
+    private final String legacyCommand;
+
+    ChecksumAlgorithm(String hashName, String legacyCommand) {
+        this.hashName = hashName;
+        this.legacyCommand = legacyCommand;
+    }
+
+    private static MessageDigest messageDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            //JDK 保证一定支持 MD5 与 SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return 一个新的摘要对象，每次传输使用一个
+     */
+    public abstract MessageDigest newDigest();
+
+    public String getHashName() {
+        return hashName;
+    }
+
+    public String getLegacyCommand() {
+        return legacyCommand;
+    }
+}
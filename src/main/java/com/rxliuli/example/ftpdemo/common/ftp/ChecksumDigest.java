@@ -0,0 +1,46 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import java.security.MessageDigest;
+import java.util.zip.Checksum;
+
+/**
+ * 将 32 位的 {@link Checksum} 适配为 {@link MessageDigest}
+ * 这样 CRC 与 MD5/SHA-256 可以统一使用 {@link java.security.DigestInputStream} 计算，摘要为大端序的 4 个字节
+ *
+ * @author rxliuli
+ */
+class ChecksumDigest extends MessageDigest {
+    private final Checksum checksum;
+
+    ChecksumDigest(String algorithm, Checksum checksum) {
+        super(algorithm);
+        this.checksum = checksum;
+    }
+
+    @Override
+    protected int engineGetDigestLength() {
+        return 4;
+    }
+
+    @Override
+    protected void engineUpdate(byte input) {
+        checksum.update(input);
+    }
+
+    @Override
+    protected void engineUpdate(byte[] input, int offset, int len) {
+        checksum.update(input, offset, len);
+    }
+
+    @Override
+    protected byte[] engineDigest() {
+        final long value = checksum.getValue();
+        checksum.reset();
+        return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+    }
+
+    @Override
+    protected void engineReset() {
+        checksum.reset();
+    }
+}
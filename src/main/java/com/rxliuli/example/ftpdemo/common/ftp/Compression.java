@@ -0,0 +1,121 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.*;
+
+/**
+ * 客户端的流式压缩格式
+ * 上传时一边读取本地数据一边压缩，下载时一边读取远程数据一边解压，都不需要临时文件，
+ * 服务器上保存的是压缩之后的文件
+ *
+ * @author rxliuli
+ */
+public enum Compression {
+    /**
+     * 不压缩
+     */
+    NONE {
+        @Override
+        public InputStream compress(InputStream is) {
+            return is;
+        }
+
+        @Override
+        public InputStream decompress(InputStream is) {
+            return is;
+        }
+    },
+    /**
+     * zlib 格式的 deflate 压缩，与 ftp 的 MODE Z 使用相同的格式
+     */
+    DEFLATE {
+        @Override
+        public InputStream compress(InputStream is) {
+            return new EndingDeflaterInputStream(is, new Deflater(Deflater.DEFAULT_COMPRESSION));
+        }
+
+        @Override
+        public InputStream decompress(InputStream is) {
+            return new EndingInflaterInputStream(is, new Inflater());
+        }
+    },
+    /**
+     * gzip 格式，可以直接使用 gunzip 等工具解压
+     */
+    GZIP {
+        @Override
+        public InputStream compress(InputStream is) {
+            return new GzipCompressingInputStream(is);
+        }
+
+        @Override
+        public InputStream decompress(InputStream is) {
+            try {
+                return new GZIPInputStream(is, BUFFER_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    };
+
+    /**
+     * 压缩/解压时的缓冲区大小，JDK 默认只有 512 字节，会严重影响吞吐量
+     */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 包装一个读取时压缩的流
+     *
+     * @param is 原始数据
+     * @return 读取到的是压缩之后的数据
+     */
+    public abstract InputStream compress(InputStream is);
+
+    /**
+     * 包装一个读取时解压的流
+     *
+     * @param is 压缩之后的数据
+     * @return 读取到的是原始数据
+     */
+    public abstract InputStream decompress(InputStream is);
+
+    /**
+     * 关闭时释放 {@link Deflater} 的本地内存
+     * {@link DeflaterInputStream} 只会释放自己创建的 {@link Deflater}，传入的需要自行释放
+     */
+    private static class EndingDeflaterInputStream extends DeflaterInputStream {
+        EndingDeflaterInputStream(InputStream in, Deflater deflater) {
+            super(in, deflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+    }
+
+    /**
+     * 关闭时释放 {@link Inflater} 的本地内存
+     * {@link InflaterInputStream} 只会释放自己创建的 {@link Inflater}，传入的需要自行释放
+     */
+    private static class EndingInflaterInputStream extends InflaterInputStream {
+        EndingInflaterInputStream(InputStream in, Inflater inflater) {
+            super(in, inflater, BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import java.util.zip.Checksum;
+
+/**
+ * CRC-32C（Castagnoli）校验和
+ * JDK 9 之前没有 {@code java.util.zip.CRC32C}，这里使用 slicing-by-8 查表法实现，每次处理 8 个字节
+ *
+ * @author rxliuli
+ */
+class Crc32c implements Checksum {
+    /**
+     * 反转之后的 Castagnoli 多项式
+     */
+    private static final int POLY = 0x82F63B78;
+    private static final int[][] TABLES = tables();
+
+    private int crc;
+
+    private static int[][] tables() {
+        final int[][] tables = new int[8][256];
+        for (int n = 0; n < 256; n++) {
+            int c = n;
+            for (int k = 0; k < 8; k++) {
+                c = (c & 1) != 0 ? (c >>> 1) ^ POLY : c >>> 1;
+            }
+            tables[0][n] = c;
+        }
+        for (int t = 1; t < 8; t++) {
+            for (int n = 0; n < 256; n++) {
+                final int prev = tables[t - 1][n];
+                tables[t][n] = (prev >>> 8) ^ tables[0][prev & 0xff];
+            }
+        }
+        return tables;
+    }
+
+    @Override
+    public void update(int b) {
+        final int c = ~crc;
+        crc = ~((c >>> 8) ^ TABLES[0][(c ^ b) & 0xff]);
+    }
+
+    @Override
+    public void update(byte[] b, int off, int len) {
+        final int[] t0 = TABLES[0], t1 = TABLES[1], t2 = TABLES[2], t3 = TABLES[3],
+                t4 = TABLES[4], t5 = TABLES[5], t6 = TABLES[6], t7 = TABLES[7];
+        int c = ~crc;
+        for (; len >= 8; off += 8, len -= 8) {
+            c ^= (b[off] & 0xff) | (b[off + 1] & 0xff) << 8 | (b[off + 2] & 0xff) << 16 | (b[off + 3] & 0xff) << 24;
+            final int hi = (b[off + 4] & 0xff) | (b[off + 5] & 0xff) << 8 | (b[off + 6] & 0xff) << 16 | (b[off + 7] & 0xff) << 24;
+            c = t7[c & 0xff] ^ t6[(c >>> 8) & 0xff] ^ t5[(c >>> 16) & 0xff] ^ t4[c >>> 24]
+                    ^ t3[hi & 0xff] ^ t2[(hi >>> 8) & 0xff] ^ t1[(hi >>> 16) & 0xff] ^ t0[hi >>> 24];
+        }
+        for (; len > 0; off++, len--) {
+            c = (c >>> 8) ^ t0[(c ^ b[off]) & 0xff];
+        }
+        crc = ~c;
+    }
+
+    @Override
+    public long getValue() {
+        return crc & 0xffffffffL;
+    }
+
+    @Override
+    public void reset() {
+        crc = 0;
+    }
+}
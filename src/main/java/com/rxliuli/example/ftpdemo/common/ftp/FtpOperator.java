@@ -1,27 +1,32 @@
 package com.rxliuli.example.ftpdemo.common.ftp;
 
+import com.rxliuli.example.ftpdemo.common.ftp.progress.ProgressInputStream;
+import com.rxliuli.example.ftpdemo.common.ftp.progress.ProgressTracker;
+import com.rxliuli.example.ftpdemo.common.ftp.progress.TransferListener;
+import com.rxliuli.example.ftpdemo.common.ftp.progress.TransferProgress;
 import com.rxliuli.example.ftpdemo.common.ftp.watch.FtpWatch;
 import com.rxliuli.example.ftpdemo.common.ftp.watch.FtpWatchConfig;
 import com.rxliuli.example.ftpdemo.common.ftp.watch.FtpWatchFactory;
+import com.rxliuli.example.ftpdemo.common.util.FileChannelUtil;
 import com.rxliuli.example.ftpdemo.common.util.ListUtil;
 import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.*;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import static com.rxliuli.example.ftpdemo.common.util.PathUtil.SEPARATOR;
-import static com.rxliuli.example.ftpdemo.common.util.PathUtil.join;
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.*;
 
 
 /**
@@ -30,10 +35,24 @@ import static com.rxliuli.example.ftpdemo.common.util.PathUtil.join;
  *
  * @author rxliuli
  */
-public interface FtpOperator {
+public interface FtpOperator extends AutoCloseable {
     Logger log = LoggerFactory.getLogger(FtpOperator.class);
 
 
+    /**
+     * 在同一个连接上执行一组操作
+     * 传给 {@param action} 的 FtpOperator 对象绑定在一个连接上，通过它进行的所有操作都复用该连接，
+     * 所以递归操作只需要一次连接/登录。{@param action} 执行完成后连接即被归还，请勿在其之外继续使用这个对象
+     * 默认实现直接使用当前对象
+     *
+     * @param action 操作
+     * @param <R>    返回类型
+     * @return 操作的返回值
+     */
+    default <R> R session(Function<FtpOperator, R> action) {
+        return action.apply(this);
+    }
+
     /**
      * 上传文件
      * 默认创建不存在的父级目录
@@ -78,13 +97,122 @@ public interface FtpOperator {
      */
     default boolean put(File localFile, String remoteFilePath, boolean isCreateDir) {
         try {
-            return put(new FileInputStream(localFile), remoteFilePath, isCreateDir);
+            return put(FileChannelUtil.newInputStream(localFile, FileChannelUtil.DEFAULT_BUFFER_SIZE), remoteFilePath, isCreateDir);
         } catch (FileNotFoundException e) {
             log.error("sftp put operation failed: {}", e);
             return false;
         }
     }
 
+    /**
+     * 压缩上传文件
+     * 一边读取本地数据一边压缩，不需要临时文件，服务器上保存的是压缩之后的文件
+     *
+     * @param localIs        本地文件
+     * @param remoteFilePath 远程文件路径
+     * @param isCreateDir    是否创建父目录
+     * @param compression    压缩格式
+     * @return 是否上传成功
+     */
+    default boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir, Compression compression) {
+        return put(compression.compress(localIs), remoteFilePath, isCreateDir);
+    }
+
+    /**
+     * 上传文件并校验
+     * 摘要在上传的同时计算，如果服务器支持同一种算法（HASH/XCRC/XMD5），上传完成后与服务器端的结果比较，
+     * 否则只在结果中返回摘要
+     *
+     * @param localIs        本地文件
+     * @param remoteFilePath 远程文件路径
+     * @param isCreateDir    是否创建父目录
+     * @param algorithm      校验算法
+     * @return 传输结果
+     */
+    default TransferResult put(InputStream localIs, String remoteFilePath, boolean isCreateDir, ChecksumAlgorithm algorithm) {
+        return new VerifiedTransfer(this, algorithm).put(localIs, remoteFilePath, isCreateDir);
+    }
+
+    /**
+     * 上传文件并校验
+     * 默认创建不存在的父级目录
+     *
+     * @param localFile      本地文件
+     * @param remoteFilePath 远程文件路径
+     * @param algorithm      校验算法
+     * @return 传输结果
+     */
+    default TransferResult put(File localFile, String remoteFilePath, ChecksumAlgorithm algorithm) {
+        try (final InputStream is = FileChannelUtil.newInputStream(localFile, FileChannelUtil.DEFAULT_BUFFER_SIZE)) {
+            return put(is, remoteFilePath, true, algorithm);
+        } catch (IOException e) {
+            log.error("Verified put failed: {}", e);
+            return new TransferResult(false, 0, algorithm, null, null);
+        }
+    }
+
+    /**
+     * 上传文件并回调进度
+     * 默认创建不存在的父级目录
+     *
+     * @param localFile      本地文件
+     * @param remoteFilePath 远程文件路径
+     * @param listener       进度监听器
+     * @return 是否上传成功
+     */
+    default boolean put(File localFile, String remoteFilePath, TransferListener listener) {
+        final ProgressTracker tracker = new ProgressTracker(remoteFilePath, localFile.length(), listener);
+        try {
+            return put(FileChannelUtil.newInputStream(localFile, FileChannelUtil.DEFAULT_BUFFER_SIZE), remoteFilePath, true, tracker);
+        } catch (FileNotFoundException e) {
+            log.error("Put file failed: {}", e);
+            return tracker.finish(false);
+        }
+    }
+
+    /**
+     * 上传文件并记录进度，结束时调用 {@link ProgressTracker#finish(boolean)}
+     * 默认实现在读取本地数据时记录进度，子类应当使用客户端自身的进度回调实现
+     *
+     * @param localIs        本地文件
+     * @param remoteFilePath 远程文件路径
+     * @param isCreateDir    是否创建父目录
+     * @param tracker        进度跟踪
+     * @return 是否上传成功
+     */
+    default boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir, ProgressTracker tracker) {
+        boolean result = false;
+        try {
+            result = put(new ProgressInputStream(localIs, tracker), remoteFilePath, isCreateDir);
+            return result;
+        } finally {
+            tracker.finish(result);
+        }
+    }
+
+    /**
+     * 将数据追加到远程文件的末尾，远程文件不存在时创建
+     * 用于断点续传
+     *
+     * @param localIs        本地数据
+     * @param remoteFilePath 远程文件路径
+     * @return 是否追加成功
+     */
+    boolean append(InputStream localIs, String remoteFilePath);
+
+    /**
+     * 可断点续传的上传文件
+     * 上传过程中会在本地文件旁边保存检查点，如果上传失败（包括程序重启），再次调用时将从服务器上已经确认的大小继续上传，
+     * 上传成功后删除检查点。本地文件在两次上传之间发生变化时将重新上传
+     *
+     * @param localFile      本地文件
+     * @param remoteFilePath 远程文件路径
+     * @return 是否上传成功
+     */
+    default boolean putResumable(File localFile, String remoteFilePath) {
+        return new ResumableTransfer(this).put(localFile, remoteFilePath);
+    }
+
     /**
      * 下载文件
      * 下载之前会自动创建目录
@@ -132,6 +260,261 @@ public interface FtpOperator {
         });
     }
 
+    /**
+     * 下载并解压文件
+     * 一边读取远程数据一边解压，传给 {@param action} 的是解压之后的数据。
+     * 操作完成后关闭解压的流以释放解压器占用的本地内存，远程数据流仍然由下载方法负责关闭
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param compression    远程文件的压缩格式
+     * @param action         操作
+     * @param <R>            返回类型
+     * @return 对流操作的返回值
+     */
+    default <R> R get(String remoteFilePath, Compression compression, Function<InputStream, R> action) {
+        return get(remoteFilePath, (Function<InputStream, R>) is -> {
+            if (is == null) {
+                return action.apply(null);
+            }
+            try (InputStream decompressed = compression.decompress(new CloseShieldInputStream(is))) {
+                return action.apply(decompressed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 下载文件并校验
+     * 摘要在下载的同时计算，如果服务器支持同一种算法（HASH/XCRC/XMD5），下载完成后与服务器端的结果比较，
+     * 否则只在结果中返回摘要
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件，父目录不存在时自动创建
+     * @param algorithm      校验算法
+     * @return 传输结果
+     */
+    default TransferResult get(String remoteFilePath, File localFile, ChecksumAlgorithm algorithm) {
+        return new VerifiedTransfer(this, algorithm).get(remoteFilePath, localFile);
+    }
+
+    /**
+     * 下载文件并回调进度
+     * 下载之前会自动创建目录
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件
+     * @param listener       进度监听器
+     * @return 是否下载成功
+     */
+    default boolean get(String remoteFilePath, File localFile, TransferListener listener) {
+        return get(remoteFilePath, localFile, true, new ProgressTracker(remoteFilePath, TransferProgress.UNKNOWN_SIZE, listener));
+    }
+
+    /**
+     * 下载文件并记录进度，结束时调用 {@link ProgressTracker#finish(boolean)}
+     * 默认实现在读取远程数据流时记录进度，子类应当使用客户端自身的进度回调实现
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件
+     * @param isCreateFile   是否创建父目录
+     * @param tracker        进度跟踪
+     * @return 是否下载成功
+     */
+    default boolean get(String remoteFilePath, File localFile, boolean isCreateFile, ProgressTracker tracker) {
+        if (isCreateFile) {
+            final boolean mkdirs = localFile.getAbsoluteFile().getParentFile().mkdirs();
+            log.info("Create file parent dirs successful: {}", mkdirs);
+        }
+        boolean result = false;
+        try {
+            result = Boolean.TRUE.equals(get(remoteFilePath, (Function<InputStream, Boolean>) is -> {
+                if (is == null) {
+                    return false;
+                }
+                try (final OutputStream os = FileChannelUtil.newOutputStream(localFile, false, FileChannelUtil.DEFAULT_BUFFER_SIZE)) {
+                    IOUtils.copyLarge(new ProgressInputStream(is, tracker), os, new byte[FileChannelUtil.DEFAULT_BUFFER_SIZE]);
+                    return true;
+                } catch (IOException e) {
+                    log.error("Get file failed: {}", e);
+                    return false;
+                }
+            }));
+            return result;
+        } finally {
+            tracker.finish(result);
+        }
+    }
+
+    /**
+     * 从指定的偏移量开始下载文件
+     * 默认实现会读取并丢弃流开头的 {@param offset} 个字节，子类应当使用服务器提供的断点续传功能实现
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param offset         开始下载的偏移量
+     * @param action         操作
+     * @param <R>            返回类型
+     * @return 对流操作的返回值
+     */
+    default <R> R get(String remoteFilePath, long offset, Function<InputStream, R> action) {
+        return get(remoteFilePath, is -> {
+            if (is != null && offset > 0) {
+                try {
+                    IOUtils.skipFully(is, offset);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return action.apply(is);
+        });
+    }
+
+    /**
+     * 分段并行下载文件
+     * 文件将被拆分为最多 {@param parallelism} 个字节范围，每个范围使用单独的连接从对应的偏移量开始下载，
+     * 并直接写入本地文件的对应位置，全部完成后校验本地文件的大小。文件较小时退化为普通的下载
+     * 注意：实际的并发数还受到连接池最大连接数的限制
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件
+     * @param parallelism    并发数
+     * @return 是否下载成功
+     */
+    default boolean get(String remoteFilePath, File localFile, int parallelism) {
+        return new SegmentedDownloader(this, parallelism).get(remoteFilePath, localFile);
+    }
+
+    /**
+     * 可断点续传的下载文件
+     * 下载过程中会在本地文件旁边保存检查点，如果下载失败（包括程序重启），再次调用时将从本地已经写入的大小继续下载，
+     * 下载成功后删除检查点。远程文件在两次下载之间发生变化时将重新下载
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件
+     * @return 是否下载成功
+     */
+    default boolean getResumable(String remoteFilePath, File localFile) {
+        return new ResumableTransfer(this).get(remoteFilePath, localFile);
+    }
+
+    /**
+     * 将本地目录同步到远程目录
+     * 只上传新增或者发生变化（大小不同或者本地更新）的文件，不会删除远程目录中多余的文件
+     *
+     * @param localDir  本地目录
+     * @param remoteDir 远程目录
+     * @return 同步的结果
+     */
+    default MirrorResult mirrorUp(File localDir, String remoteDir) {
+        return mirrorUp(localDir, remoteDir, Mirror.DEFAULT_PARALLELISM, false);
+    }
+
+    /**
+     * 将本地目录同步到远程目录
+     * 缺失的目录在传输之前一次性创建，只上传新增或者发生变化（大小不同或者本地更新）的文件
+     * 注意：每个线程都会单独占用一个连接，所以实际的并发数还受到连接池最大连接数的限制
+     *
+     * @param localDir    本地目录
+     * @param remoteDir   远程目录
+     * @param parallelism 并发数
+     * @param delete      是否删除远程目录中本地不存在的文件/目录
+     * @return 同步的结果
+     */
+    default MirrorResult mirrorUp(File localDir, String remoteDir, int parallelism, boolean delete) {
+        return new Mirror(this, parallelism, delete).up(localDir, remoteDir);
+    }
+
+    /**
+     * 将远程目录同步到本地目录
+     * 只下载新增或者发生变化（大小不同或者远程更新）的文件，不会删除本地目录中多余的文件
+     *
+     * @param remoteDir 远程目录
+     * @param localDir  本地目录
+     * @return 同步的结果
+     */
+    default MirrorResult mirrorDown(String remoteDir, File localDir) {
+        return mirrorDown(remoteDir, localDir, Mirror.DEFAULT_PARALLELISM, false);
+    }
+
+    /**
+     * 将远程目录同步到本地目录
+     * 缺失的目录在传输之前一次性创建，只下载新增或者发生变化（大小不同或者远程更新）的文件，
+     * 下载的文件将被设置为与远程文件相同的修改时间
+     * 注意：每个线程都会单独占用一个连接，所以实际的并发数还受到连接池最大连接数的限制
+     *
+     * @param remoteDir   远程目录
+     * @param localDir    本地目录
+     * @param parallelism 并发数
+     * @param delete      是否删除本地目录中远程不存在的文件/目录
+     * @return 同步的结果
+     */
+    default MirrorResult mirrorDown(String remoteDir, File localDir, int parallelism, boolean delete) {
+        return new Mirror(this, parallelism, delete).down(remoteDir, localDir);
+    }
+
+    /**
+     * 批量传输时的并发数
+     * 默认为 {@link BulkTransfer#DEFAULT_PARALLELISM}，子类可以按照连接池的大小配置。
+     * 注意：并发数限制的是每一批传输，同时进行的多批传输各自使用自己的线程，总的并发数仍然受到连接池大小的限制
+     *
+     * @return 并发数
+     */
+    default int getBulkParallelism() {
+        return BulkTransfer.DEFAULT_PARALLELISM;
+    }
+
+    /**
+     * 批量上传文件
+     * 这一批文件使用最多 {@link #getBulkParallelism()} 个线程并发的上传，该方法不会阻塞
+     *
+     * @param files k 是本地文件，v 是远程文件路径
+     * @return 批量传输的异步结果，可以获取每个文件的结果以及汇总的结果
+     */
+    default BulkTransfer<File> putAll(Map<File, String> files) {
+        final Map<File, Supplier<Boolean>> tasks = new LinkedHashMap<>();
+        files.forEach((localFile, remoteFilePath) -> tasks.put(localFile, () -> put(localFile, remoteFilePath)));
+        return BulkTransfer.start(tasks, getBulkParallelism());
+    }
+
+    /**
+     * 批量下载文件
+     * 这一批文件使用最多 {@link #getBulkParallelism()} 个线程并发的下载，该方法不会阻塞
+     *
+     * @param files k 是远程文件路径，v 是本地文件
+     * @return 批量传输的异步结果，可以获取每个文件的结果以及汇总的结果
+     */
+    default BulkTransfer<String> getAll(Map<String, File> files) {
+        final Map<String, Supplier<Boolean>> tasks = new LinkedHashMap<>();
+        files.forEach((remoteFilePath, localFile) -> tasks.put(remoteFilePath, () -> get(remoteFilePath, localFile)));
+        return BulkTransfer.start(tasks, getBulkParallelism());
+    }
+
+    /**
+     * 获取指定路径的文件信息
+     * 默认实现列出父目录再查找，子类可以使用更高效的方式实现
+     *
+     * @param path 文件路径
+     * @return 文件信息，不存在时返回 null
+     */
+    default Stat stat(String path) {
+        return ls(getParentDir(path)).stream()
+                .filter(stat -> Objects.equals(stat.getPath(), path))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 由服务器计算远程文件的摘要
+     * 默认不支持
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param algorithm      校验算法
+     * @return 小写的十六进制摘要，服务器不支持该算法时为 null
+     */
+    default String checksum(String remoteFilePath, ChecksumAlgorithm algorithm) {
+        return null;
+    }
+
     /**
      * 创建目录
      * 目录必须以 {@link PathUtil#SEPARATOR} 进行分割，并且以 / 开头
@@ -150,15 +533,17 @@ public interface FtpOperator {
      * @return 文件目录是否创建成功
      */
     default boolean mkdirR(String path) {
-        final String[] pathUnits = path.split(SEPARATOR);
-        String temp = "";
-        for (String pathUnit : pathUnits) {
-            temp = join(temp, pathUnit);
-            if (!exist(temp) && !mkdir(temp)) {
-                return false;
+        return session(ftp -> {
+            final String[] pathUnits = path.split(SEPARATOR);
+            String temp = "";
+            for (String pathUnit : pathUnits) {
+                temp = join(temp, pathUnit);
+                if (!ftp.exist(temp) && !ftp.mkdir(temp)) {
+                    return false;
+                }
             }
-        }
-        return true;
+            return true;
+        });
     }
 
     /**
@@ -202,16 +587,42 @@ public interface FtpOperator {
      * @return 获取所有文件信息
      */
     default List<Stat> lsR(String path) {
-        final List<Stat> ls = ls(path);
-        return ls.stream()
+        return session(ftp -> ftp.ls(path).stream()
                 .flatMap(stat -> {
                     final Stream<Stat> stream = Stream.of(stat);
-                    if (!stat.getIsDir()) {
+                    if (!stat.isDirectory()) {
                         return stream;
                     }
-                    return Stream.concat(stream, lsR(stat.getPath()).stream());
+                    return Stream.concat(stream, ftp.lsR(stat.getPath()).stream());
                 })
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 惰性递归获取指定目录下的所有文件信息
+     * 返回顺序与 {@link #lsR(String)} 相同，但目录只有在流被消费到时才会列出，所以可以提前终止（例如 {@link Stream#findFirst()}），
+     * 并且内存占用只与当前遍历的路径相关，而与整棵目录树的大小无关
+     * 注意：每次列出目录都会单独借出连接，所以消费流的过程中不会一直占用连接
+     *
+     * @param path 指定目录
+     * @return 所有文件信息的流
+     */
+    default Stream<Stat> lsRStream(String path) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new LsRIterator(this, path), Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * 并行递归获取指定目录下的所有文件信息
+     * 同级目录将使用最多 {@param parallelism} 个线程并发的展开，返回结果与 {@link #lsR(String)} 相同
+     * 注意：每个线程都会单独占用一个连接，所以实际的并发数还受到连接池最大连接数的限制
+     *
+     * @param path        指定目录
+     * @param parallelism 并发数
+     * @return 获取所有文件信息
+     */
+    default List<Stat> lsR(String path, int parallelism) {
+        return new ParallelLister(this, parallelism).lsR(path);
     }
 
     /**
@@ -221,17 +632,17 @@ public interface FtpOperator {
      * @return 删除是否成功
      */
     default boolean rmdirR(String path) {
-        return lsR(path).stream()
+        return session(ftp -> ftp.lsR(path).stream()
                 .sorted(Comparator.comparing(stat -> -stat.getPath().length()))
                 .map(stat -> {
-                    if (stat.getIsDir()) {
-                        return rmdir(stat.getPath());
+                    if (stat.isDirectory()) {
+                        return ftp.rmdir(stat.getPath());
                     } else {
-                        return rm(stat.getPath());
+                        return ftp.rm(stat.getPath());
                     }
                 })
                 .reduce((res, item) -> res && item)
-                .orElse(true) && rmdir(path);
+                .orElse(true) && ftp.rmdir(path));
     }
 
     /**
@@ -259,9 +670,11 @@ public interface FtpOperator {
      */
     @Deprecated
     default void watch(String path, Consumer<Stat> callback) {
-        watch(map -> map.get(ListUtil.ListDiffState.right).stream()
-                .filter(stat -> Objects.equals(stat.getPath(), path))
-                .findFirst(), callback);
+        FtpWatch ftpWatch = FtpWatchFactory.getInstance(this);
+        if (ftpWatch == null) {
+            throw new RuntimeException("You don't have a profile listener");
+        }
+        ftpWatch.addPathListener(path, callback);
     }
 
     /**
@@ -288,9 +701,26 @@ public interface FtpOperator {
      * @return 异步完成对象
      */
     default CompletableFuture<Stat> watch(String path) {
-        return watch((Function<Map<ListUtil.ListDiffState, List<Stat>>, Optional<Stat>>) map -> map.get(ListUtil.ListDiffState.right).stream()
-                .filter(stat -> stat.getPath().equals(path))
-                .findFirst());
+        FtpWatch ftpWatch = FtpWatchFactory.getInstance(this);
+        if (ftpWatch == null) {
+            throw new RuntimeException("You don't have a profile listener");
+        }
+        return ftpWatch.addPathListener(path);
+    }
+
+    /**
+     * 监听目录下的文件出现
+     * 该方法返回一个 {@link CompletableFuture<Stat>}，目录本身以及目录下任意层级的文件/目录出现时完成
+     *
+     * @param dir 目录的路径
+     * @return 异步完成对象
+     */
+    default CompletableFuture<Stat> watchPrefix(String dir) {
+        FtpWatch ftpWatch = FtpWatchFactory.getInstance(this);
+        if (ftpWatch == null) {
+            throw new RuntimeException("You don't have a profile listener");
+        }
+        return ftpWatch.addPrefixListener(dir);
     }
 
     /**
@@ -301,12 +731,22 @@ public interface FtpOperator {
      * @return 异步完成对象
      */
     default CompletableFuture<Stat> watch(Predicate<String> condition) {
-        return watch((Function<Map<ListUtil.ListDiffState, List<Stat>>, Optional<Stat>>) map -> map.get(ListUtil.ListDiffState.right).stream()
-                .filter(stat -> condition.test(stat.getPath()))
-                .findFirst());
+        FtpWatch ftpWatch = FtpWatchFactory.getInstance(this);
+        if (ftpWatch == null) {
+            throw new RuntimeException("You don't have a profile listener");
+        }
+        return ftpWatch.addListener(condition);
     }
 
 
+    /**
+     * 释放这个 FtpOperator 对象持有的资源，例如连接池
+     * 默认什么都不做
+     */
+    @Override
+    default void close() {
+    }
+
     /**
      * 如果这个 FtpOperator 对象需要监听文件变化，请务必调用此方法
      *
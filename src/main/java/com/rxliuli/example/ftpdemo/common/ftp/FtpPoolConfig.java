@@ -0,0 +1,123 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+
+/**
+ * ftp 连接池的配置
+ * 用于限制连接的总数量，以及空闲连接的回收策略
+ *
+ * @author rxliuli
+ */
+public class FtpPoolConfig {
+    public static final int DEFAULT_MAX_TOTAL = 8;
+    public static final int DEFAULT_MAX_IDLE = 8;
+    public static final int DEFAULT_MIN_IDLE = 0;
+    public static final long DEFAULT_MAX_WAIT_MILLIS = 10_000L;
+    public static final long DEFAULT_MIN_EVICTABLE_IDLE_TIME_MILLIS = 300_000L;
+    public static final long DEFAULT_TIME_BETWEEN_EVICTION_RUNS_MILLIS = 60_000L;
+    /**
+     * 最大连接数，包括正在使用和空闲的连接
+     */
+    private Integer maxTotal = DEFAULT_MAX_TOTAL;
+    /**
+     * 最大空闲连接数
+     */
+    private Integer maxIdle = DEFAULT_MAX_IDLE;
+    /**
+     * 最小空闲连接数
+     */
+    private Integer minIdle = DEFAULT_MIN_IDLE;
+    /**
+     * 连接池耗尽时获取连接的最大等待时间，单位为毫秒
+     */
+    private Long maxWaitMillis = DEFAULT_MAX_WAIT_MILLIS;
+    /**
+     * 连接空闲多久之后可以被回收，单位为毫秒
+     */
+    private Long minEvictableIdleTimeMillis = DEFAULT_MIN_EVICTABLE_IDLE_TIME_MILLIS;
+    /**
+     * 回收空闲连接的检查间隔，单位为毫秒
+     */
+    private Long timeBetweenEvictionRunsMillis = DEFAULT_TIME_BETWEEN_EVICTION_RUNS_MILLIS;
+
+    /**
+     * 转换为 commons-pool2 的连接池配置
+     * 借出连接以及空闲检查时都会对连接进行校验
+     *
+     * @param <T> 连接池中对象的类型
+     * @return commons-pool2 的连接池配置
+     */
+    public <T> GenericObjectPoolConfig<T> toObjectPoolConfig() {
+        final GenericObjectPoolConfig<T> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(maxTotal);
+        poolConfig.setMaxIdle(maxIdle);
+        poolConfig.setMinIdle(minIdle);
+        poolConfig.setMaxWaitMillis(maxWaitMillis);
+        poolConfig.setMinEvictableIdleTimeMillis(minEvictableIdleTimeMillis);
+        poolConfig.setTimeBetweenEvictionRunsMillis(timeBetweenEvictionRunsMillis);
+        poolConfig.setTestOnBorrow(true);
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setJmxEnabled(false);
+        return poolConfig;
+    }
+
+    public Integer getMaxTotal() {
+        return maxTotal;
+    }
+
+    public FtpPoolConfig setMaxTotal(Integer maxTotal) {
+        this.maxTotal = maxTotal;
+        return this;
+    }
+
+    public Integer getMaxIdle() {
+        return maxIdle;
+    }
+
+    public FtpPoolConfig setMaxIdle(Integer maxIdle) {
+        this.maxIdle = maxIdle;
+        return this;
+    }
+
+    public Integer getMinIdle() {
+        return minIdle;
+    }
+
+    public FtpPoolConfig setMinIdle(Integer minIdle) {
+        this.minIdle = minIdle;
+        return this;
+    }
+
+    public Long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public FtpPoolConfig setMaxWaitMillis(Long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+        return this;
+    }
+
+    public Long getMinEvictableIdleTimeMillis() {
+        return minEvictableIdleTimeMillis;
+    }
+
+    public FtpPoolConfig setMinEvictableIdleTimeMillis(Long minEvictableIdleTimeMillis) {
+        this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
+        return this;
+    }
+
+    public Long getTimeBetweenEvictionRunsMillis() {
+        return timeBetweenEvictionRunsMillis;
+    }
+
+    public FtpPoolConfig setTimeBetweenEvictionRunsMillis(Long timeBetweenEvictionRunsMillis) {
+        this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this);
+    }
+}
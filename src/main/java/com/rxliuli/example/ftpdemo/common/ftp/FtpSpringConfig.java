@@ -1,8 +1,10 @@
 package com.rxliuli.example.ftpdemo.common.ftp;
 
 import com.rxliuli.example.ftpdemo.common.ftp.basic.BasicFtpClientConfig;
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferScheduler;
 import com.rxliuli.example.ftpdemo.common.ftp.sftp.SftpClientConfig;
 import com.rxliuli.example.ftpdemo.common.ftp.watch.FtpWatchConfig;
+import com.rxliuli.example.ftpdemo.common.util.FileChannelUtil;
 import com.rxliuli.example.ftpdemo.common.util.ListUtil;
 import com.rxliuli.example.ftpdemo.common.util.SpringConfigUtil;
 import org.apache.commons.lang3.StringUtils;
@@ -38,11 +40,21 @@ public class FtpSpringConfig {
             log.error("Read the ftp and sftp configuration exception, read the configuration: username {}, host {}, password {}", username, host, password);
             return;
         }
+        initScheduler();
         initFtp(username, host, password);
         initSftp(username, host, password);
         initFtpWatch();
     }
 
+    /**
+     * 初始化共享的传输调度器
+     */
+    private void initScheduler() {
+        final Long maxBytesPerSecond = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SCHEDULER_MAX_BYTES_PER_SECOND, Long.class, BaseFtpClientConfig.DEFAULT_MAX_BYTES_PER_SECOND);
+        TransferScheduler.getInstance().setMaxBytesPerSecond(maxBytesPerSecond);
+        log.info("Read the transfer scheduler configuration completed: maxBytesPerSecond {}", maxBytesPerSecond);
+    }
+
     /**
      * 初始化标准 ftp 配置项
      *
@@ -55,13 +67,42 @@ public class FtpSpringConfig {
         final String localCharset = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_LOCAL_CHARSET, BasicFtpClientConfig.DEFAULT_LOCAL_CHARSET);
         final String serverCharset = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_SERVER_CHARSET, BasicFtpClientConfig.DEFAULT_SERVER_CHARSET);
         final Integer fileType = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_FILE_TYPE, Integer.class, BasicFtpClientConfig.DEFAULT_FILE_TYPE);
+        final Integer bufferSize = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_BUFFER_SIZE, Integer.class, FileChannelUtil.DEFAULT_BUFFER_SIZE);
+        final Integer sendBufferSize = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_SEND_BUFFER_SIZE, Integer.class, BasicFtpClientConfig.DEFAULT_SOCKET_BUFFER_SIZE);
+        final Integer receiveBufferSize = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_RECEIVE_BUFFER_SIZE, Integer.class, BasicFtpClientConfig.DEFAULT_SOCKET_BUFFER_SIZE);
+        final Integer bulkParallelism = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_BULK_PARALLELISM, Integer.class, BulkTransfer.DEFAULT_PARALLELISM);
+        final Boolean modeZ = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_MODE_Z, Boolean.class, false);
+        final Long maxBytesPerSecond = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_MAX_BYTES_PER_SECOND, Long.class, BaseFtpClientConfig.DEFAULT_MAX_BYTES_PER_SECOND);
         basicFtpClientConfig = new BasicFtpClientConfig(username, host, password, port)
                 .setLocalCharset(localCharset)
                 .setServerCharset(serverCharset)
-                .setFileType(fileType);
+                .setFileType(fileType)
+                .setSendBufferSize(sendBufferSize)
+                .setReceiveBufferSize(receiveBufferSize)
+                .setModeZ(modeZ);
+        basicFtpClientConfig.setBufferSize(bufferSize)
+                .setBulkParallelism(bulkParallelism)
+                .setMaxBytesPerSecond(maxBytesPerSecond);
         log.info("Read the ftp configuration completed, read the configuration: username {}, host {}, password {}, port: {}, localCharset {}, serverCharset {}, serverCharset {}", username, host, password, port, localCharset, serverCharset, serverCharset);
     }
 
+    /**
+     * 读取标准 ftp 连接池的配置项
+     *
+     * @return 连接池配置
+     */
+    private FtpPoolConfig readBasicFtpPoolConfig() {
+        final FtpPoolConfig poolConfig = new FtpPoolConfig()
+                .setMaxTotal(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_POOL_MAX_TOTAL, Integer.class, FtpPoolConfig.DEFAULT_MAX_TOTAL))
+                .setMaxIdle(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_POOL_MAX_IDLE, Integer.class, FtpPoolConfig.DEFAULT_MAX_IDLE))
+                .setMinIdle(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_POOL_MIN_IDLE, Integer.class, FtpPoolConfig.DEFAULT_MIN_IDLE))
+                .setMaxWaitMillis(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_POOL_MAX_WAIT_MILLIS, Long.class, FtpPoolConfig.DEFAULT_MAX_WAIT_MILLIS))
+                .setMinEvictableIdleTimeMillis(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_POOL_MIN_EVICTABLE_IDLE_TIME_MILLIS, Long.class, FtpPoolConfig.DEFAULT_MIN_EVICTABLE_IDLE_TIME_MILLIS))
+                .setTimeBetweenEvictionRunsMillis(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_BASIC_POOL_TIME_BETWEEN_EVICTION_RUNS_MILLIS, Long.class, FtpPoolConfig.DEFAULT_TIME_BETWEEN_EVICTION_RUNS_MILLIS));
+        log.info("Read the ftp pool configuration completed: {}", poolConfig);
+        return poolConfig;
+    }
+
     /**
      * 初始化 sftp 配置项
      *
@@ -73,10 +114,39 @@ public class FtpSpringConfig {
         final Integer port = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_PORT, Integer.class, 22);
         final String strictHostKeyChecking = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_STRICT_HOST_KEY_CHECKING, SftpClientConfig.DEFAULT_STRICT_HOST_KEY_CHECKING);
         final String encoding = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_ENCODING, SftpClientConfig.DEFAULT_ENCODING);
+        final Integer sessionSize = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_SESSION_SIZE, Integer.class, SftpClientConfig.DEFAULT_SESSION_SIZE);
+        final Integer maxChannelsPerSession = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_MAX_CHANNELS_PER_SESSION, Integer.class, SftpClientConfig.DEFAULT_MAX_CHANNELS_PER_SESSION);
+        final Integer serverAliveInterval = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_SERVER_ALIVE_INTERVAL, Integer.class, SftpClientConfig.DEFAULT_SERVER_ALIVE_INTERVAL);
+        final Integer bufferSize = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_BUFFER_SIZE, Integer.class, FileChannelUtil.DEFAULT_BUFFER_SIZE);
+        final Integer bulkParallelism = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_BULK_PARALLELISM, Integer.class, BulkTransfer.DEFAULT_PARALLELISM);
+        final Long maxBytesPerSecond = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_MAX_BYTES_PER_SECOND, Long.class, BaseFtpClientConfig.DEFAULT_MAX_BYTES_PER_SECOND);
         sftpClientConfig = new SftpClientConfig(username, host, password, port)
                 .setStrictHostKeyChecking(strictHostKeyChecking)
-                .setEncoding(encoding);
-        log.info("Read the sftp configuration completed, read the configuration: username {}, host {}, password {}, port: {}, strictHostKeyChecking {}, encoding, {}", username, host, password, port, strictHostKeyChecking, encoding);
+                .setEncoding(encoding)
+                .setSessionSize(sessionSize)
+                .setMaxChannelsPerSession(maxChannelsPerSession)
+                .setServerAliveInterval(serverAliveInterval);
+        sftpClientConfig.setBufferSize(bufferSize)
+                .setBulkParallelism(bulkParallelism)
+                .setMaxBytesPerSecond(maxBytesPerSecond);
+        log.info("Read the sftp configuration completed, read the configuration: username {}, host {}, password {}, port: {}, strictHostKeyChecking {}, encoding, {}, sessionSize {}, maxChannelsPerSession {}", username, host, password, port, strictHostKeyChecking, encoding, sessionSize, maxChannelsPerSession);
+    }
+
+    /**
+     * 读取 sftp 通道连接池的配置项
+     *
+     * @return 连接池配置
+     */
+    private FtpPoolConfig readSftpPoolConfig() {
+        final FtpPoolConfig poolConfig = new FtpPoolConfig()
+                .setMaxTotal(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_POOL_MAX_TOTAL, Integer.class, FtpPoolConfig.DEFAULT_MAX_TOTAL))
+                .setMaxIdle(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_POOL_MAX_IDLE, Integer.class, FtpPoolConfig.DEFAULT_MAX_IDLE))
+                .setMinIdle(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_POOL_MIN_IDLE, Integer.class, FtpPoolConfig.DEFAULT_MIN_IDLE))
+                .setMaxWaitMillis(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_POOL_MAX_WAIT_MILLIS, Long.class, FtpPoolConfig.DEFAULT_MAX_WAIT_MILLIS))
+                .setMinEvictableIdleTimeMillis(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_POOL_MIN_EVICTABLE_IDLE_TIME_MILLIS, Long.class, FtpPoolConfig.DEFAULT_MIN_EVICTABLE_IDLE_TIME_MILLIS))
+                .setTimeBetweenEvictionRunsMillis(SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_SFTP_POOL_TIME_BETWEEN_EVICTION_RUNS_MILLIS, Long.class, FtpPoolConfig.DEFAULT_TIME_BETWEEN_EVICTION_RUNS_MILLIS));
+        log.info("Read the sftp pool configuration completed: {}", poolConfig);
+        return poolConfig;
     }
 
     /**
@@ -86,12 +156,18 @@ public class FtpSpringConfig {
         final Integer interval = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_INTERVAL, Integer.class, 1000);
         final String path = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_PATH, "/");
         final Integer timeout = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_TIMEOUT, Integer.class, 10);
+        final Boolean incremental = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_INCREMENTAL, Boolean.class, false);
+        final Integer fullScanInterval = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_FULL_SCAN_INTERVAL, Integer.class, FtpWatchConfig.DEFAULT_FULL_SCAN_INTERVAL);
+        final Boolean adaptive = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_ADAPTIVE, Boolean.class, false);
+        final Integer minInterval = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_MIN_INTERVAL, Integer.class, interval);
+        final Integer maxInterval = SpringConfigUtil.get(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_MAX_INTERVAL, Integer.class, minInterval * FtpWatchConfig.DEFAULT_MAX_INTERVAL_MULTIPLE);
         ftpWatchConfig = new FtpWatchConfig(TimeUnit.MILLISECONDS, interval, path, timeout, (statMap, listenerMap) -> {
+            //按照路径监听的监听器已经由 FtpWatch 通过索引分发，这里只剩下任意条件的旧监听器
+            if (listenerMap.isEmpty() || statMap.get(ListUtil.ListDiffState.right).isEmpty()) {
+                return;
+            }
             //遍历找到符合条件的监听器
             listenerMap.forEach((key, value) -> {
-                if (statMap.get(ListUtil.ListDiffState.right).isEmpty()) {
-                    return;
-                }
                 final Optional<Stat> stat = key.apply(statMap);
                 stat.ifPresent(s -> {
                     //执行回调
@@ -100,7 +176,11 @@ public class FtpSpringConfig {
                     listenerMap.remove(key);
                 });
             });
-        });
+        }).setIncremental(incremental)
+                .setFullScanInterval(fullScanInterval)
+                .setAdaptive(adaptive)
+                .setMinInterval(minInterval)
+                .setMaxInterval(maxInterval);
         log.info("Initial ftp watch config completed: {}", ftpWatchConfig);
     }
 
@@ -113,6 +193,7 @@ public class FtpSpringConfig {
             log.error("Initial Bean basicFtpOperator failed, basic ftp client config is null!");
             return null;
         }
+        basicFtpClientConfig.setPoolConfig(readBasicFtpPoolConfig());
         final FtpOperator instance = BaseFtpOperatorFactory.getInstance(basicFtpClientConfig);
         if (SpringConfigUtil.getBoolean(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_ENABLE_BASIC)) {
             instance.initWatch(ftpWatchConfig);
@@ -130,6 +211,7 @@ public class FtpSpringConfig {
             log.error("Initial Bean sftpOperator failed, basic ftp client config is null!");
             return null;
         }
+        sftpClientConfig.setPoolConfig(readSftpPoolConfig());
         final FtpOperator instance = BaseFtpOperatorFactory.getInstance(sftpClientConfig);
         if (SpringConfigUtil.getBoolean(com.zx.idc.common.ftp.FtpSpringConfigNameConstants.FTP_WATCH_ENABLE_SFTP)) {
             instance.initWatch(ftpWatchConfig);
@@ -17,12 +17,46 @@ public class FtpSpringConfigNameConstants {
     public static final String FTP_BASIC_LOCAL_CHARSET = "ftp.basic.localCharset";
     public static final String FTP_BASIC_SERVER_CHARSET = "ftp.basic.serverCharset";
     public static final String FTP_BASIC_FILE_TYPE = "ftp.basic.fileType";
+    public static final String FTP_BASIC_BUFFER_SIZE = "ftp.basic.bufferSize";
+    public static final String FTP_BASIC_SEND_BUFFER_SIZE = "ftp.basic.sendBufferSize";
+    public static final String FTP_BASIC_RECEIVE_BUFFER_SIZE = "ftp.basic.receiveBufferSize";
+    public static final String FTP_BASIC_BULK_PARALLELISM = "ftp.basic.bulkParallelism";
+    public static final String FTP_BASIC_MODE_Z = "ftp.basic.modeZ";
+    public static final String FTP_BASIC_MAX_BYTES_PER_SECOND = "ftp.basic.maxBytesPerSecond";
+    //endregion
+
+    //region 标准 ftp 连接池的可选配置项
+    public static final String FTP_BASIC_POOL_MAX_TOTAL = "ftp.basic.pool.maxTotal";
+    public static final String FTP_BASIC_POOL_MAX_IDLE = "ftp.basic.pool.maxIdle";
+    public static final String FTP_BASIC_POOL_MIN_IDLE = "ftp.basic.pool.minIdle";
+    public static final String FTP_BASIC_POOL_MAX_WAIT_MILLIS = "ftp.basic.pool.maxWaitMillis";
+    public static final String FTP_BASIC_POOL_MIN_EVICTABLE_IDLE_TIME_MILLIS = "ftp.basic.pool.minEvictableIdleTimeMillis";
+    public static final String FTP_BASIC_POOL_TIME_BETWEEN_EVICTION_RUNS_MILLIS = "ftp.basic.pool.timeBetweenEvictionRunsMillis";
     //endregion
 
     //region sftp 的可选配置项
     public static final String FTP_SFTP_PORT = "ftp.sftp.port";
     public static final String FTP_SFTP_STRICT_HOST_KEY_CHECKING = "ftp.sftp.strictHostKeyChecking";
     public static final String FTP_SFTP_ENCODING = "ftp.sftp.encoding";
+    public static final String FTP_SFTP_SESSION_SIZE = "ftp.sftp.sessionSize";
+    public static final String FTP_SFTP_MAX_CHANNELS_PER_SESSION = "ftp.sftp.maxChannelsPerSession";
+    public static final String FTP_SFTP_SERVER_ALIVE_INTERVAL = "ftp.sftp.serverAliveInterval";
+    public static final String FTP_SFTP_BUFFER_SIZE = "ftp.sftp.bufferSize";
+    public static final String FTP_SFTP_BULK_PARALLELISM = "ftp.sftp.bulkParallelism";
+    public static final String FTP_SFTP_MAX_BYTES_PER_SECOND = "ftp.sftp.maxBytesPerSecond";
+    //endregion
+
+    //region sftp 通道连接池的可选配置项
+    public static final String FTP_SFTP_POOL_MAX_TOTAL = "ftp.sftp.pool.maxTotal";
+    public static final String FTP_SFTP_POOL_MAX_IDLE = "ftp.sftp.pool.maxIdle";
+    public static final String FTP_SFTP_POOL_MIN_IDLE = "ftp.sftp.pool.minIdle";
+    public static final String FTP_SFTP_POOL_MAX_WAIT_MILLIS = "ftp.sftp.pool.maxWaitMillis";
+    public static final String FTP_SFTP_POOL_MIN_EVICTABLE_IDLE_TIME_MILLIS = "ftp.sftp.pool.minEvictableIdleTimeMillis";
+    public static final String FTP_SFTP_POOL_TIME_BETWEEN_EVICTION_RUNS_MILLIS = "ftp.sftp.pool.timeBetweenEvictionRunsMillis";
+    //endregion
+
+    //region 传输调度可选配置项
+    public static final String FTP_SCHEDULER_MAX_BYTES_PER_SECOND = "ftp.scheduler.maxBytesPerSecond";
     //endregion
 
     //region ftp 监听器可选配置项
@@ -31,5 +65,10 @@ public class FtpSpringConfigNameConstants {
     public static final String FTP_TIMEOUT = "ftp.timeout";
     public static final String FTP_WATCH_ENABLE_BASIC = "ftp.watch.enable.basic";
     public static final String FTP_WATCH_ENABLE_SFTP = "ftp.watch.enable.sftp";
+    public static final String FTP_WATCH_INCREMENTAL = "ftp.watch.incremental";
+    public static final String FTP_WATCH_FULL_SCAN_INTERVAL = "ftp.watch.fullScanInterval";
+    public static final String FTP_WATCH_ADAPTIVE = "ftp.watch.adaptive";
+    public static final String FTP_WATCH_MIN_INTERVAL = "ftp.watch.minInterval";
+    public static final String FTP_WATCH_MAX_INTERVAL = "ftp.watch.maxInterval";
     //endregion
 }
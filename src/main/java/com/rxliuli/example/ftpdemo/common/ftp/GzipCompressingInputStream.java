@@ -0,0 +1,84 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+
+/**
+ * 读取时压缩为 gzip 格式的流
+ * JDK 只提供了写入时压缩的 {@link java.util.zip.GZIPOutputStream}，上传需要的是一个可以读取的流，
+ * 所以这里按照 RFC 1952 拼接头部，原始 deflate 数据以及在数据读取完成之后才能计算的尾部
+ *
+ * @author rxliuli
+ */
+class GzipCompressingInputStream extends SequenceInputStream {
+    private static final byte[] HEADER = {
+            0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private final Deflater deflater;
+
+    GzipCompressingInputStream(InputStream is) {
+        this(new CheckedInputStream(is, new CRC32()), new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+    }
+
+    private GzipCompressingInputStream(CheckedInputStream is, Deflater deflater) {
+        super(parts(is, deflater));
+        this.deflater = deflater;
+    }
+
+    /**
+     * 没有读取到尾部就关闭时也需要释放 {@link Deflater} 的本地内存
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static Enumeration<InputStream> parts(CheckedInputStream is, Deflater deflater) {
+        final Iterator<InputStream> iterator = Arrays.<InputStream>asList(
+                new ByteArrayInputStream(HEADER),
+                new DeflaterInputStream(is, deflater, Compression.BUFFER_SIZE),
+                null
+        ).iterator();
+        return new Enumeration<InputStream>() {
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                final InputStream next = iterator.next();
+                if (next != null) {
+                    return next;
+                }
+                //尾部只有在数据全部读取之后才能计算
+                final InputStream trailer = trailer(is.getChecksum().getValue(), deflater.getBytesRead());
+                deflater.end();
+                return trailer;
+            }
+        };
+    }
+
+    private static InputStream trailer(long crc, long size) {
+        final byte[] trailer = new byte[8];
+        for (int i = 0; i < 4; i++) {
+            trailer[i] = (byte) (crc >>> (i * 8));
+            trailer[i + 4] = (byte) (size >>> (i * 8));
+        }
+        return new ByteArrayInputStream(trailer);
+    }
+}
@@ -0,0 +1,107 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.SEPARATOR;
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.join;
+
+/**
+ * 已知存在的目录缓存
+ * 记录已经确认存在或者创建过的目录，递归创建目录时跳过已知存在的前缀，只处理缺失的部分
+ * 缓存的数量有上限，超出时随机淘汰；删除目录时需要调用 {@link #invalidate(String)}
+ *
+ * @author rxliuli
+ */
+public class KnownDirCache {
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final int capacity;
+    private final Set<String> dirs = ConcurrentHashMap.newKeySet();
+
+    public KnownDirCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public KnownDirCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public boolean contains(String dir) {
+        return dirs.contains(dir);
+    }
+
+    /**
+     * 记录一个已知存在的目录
+     *
+     * @param dir 目录
+     */
+    public void add(String dir) {
+        if (dirs.size() >= capacity) {
+            final Iterator<String> iterator = dirs.iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        dirs.add(dir);
+    }
+
+    /**
+     * 删除目录及其所有子目录的记录
+     *
+     * @param dir 目录
+     */
+    public void invalidate(String dir) {
+        final String prefix = dir.endsWith(SEPARATOR) ? dir : dir + SEPARATOR;
+        dirs.removeIf(known -> known.equals(dir) || known.startsWith(prefix));
+    }
+
+    /**
+     * 递归创建多级目录
+     * 从最深的已知目录开始，只检查/创建其后缺失的部分；一旦创建了某一级目录，其后的目录必然不存在，所以不再检查
+     *
+     * @param ftp  用于执行操作的 ftp 操作对象，一般是 {@link FtpOperator#session(java.util.function.Function)} 中的会话对象
+     * @param path 目录路径
+     * @return 文件目录是否创建成功
+     */
+    public boolean mkdirR(FtpOperator ftp, String path) {
+        final List<String> prefixes = new ArrayList<>();
+        String temp = "";
+        for (String pathUnit : path.split(SEPARATOR)) {
+            temp = join(temp, pathUnit);
+            prefixes.add(temp);
+        }
+        int start = prefixes.size();
+        while (start > 0 && !contains(prefixes.get(start - 1))) {
+            start--;
+        }
+        boolean created = false;
+        for (int i = start; i < prefixes.size(); i++) {
+            final String dir = prefixes.get(i);
+            if (created || !ftp.exist(dir)) {
+                if (!ftp.mkdir(dir)) {
+                    return false;
+                }
+                created = true;
+            }
+            add(dir);
+        }
+        return true;
+    }
+
+    /**
+     * @return 当前记录的目录数量
+     */
+    public int size() {
+        return dirs.size();
+    }
+
+    @Override
+    public String toString() {
+        return "KnownDirCache{capacity=" + capacity + ", size=" + dirs.size() + "}";
+    }
+}
@@ -0,0 +1,57 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 惰性递归获取文件信息的迭代器
+ * 按照与 {@link FtpOperator#lsR(String)} 相同的先序顺序返回，只有在需要下一个元素时才会列出目录，
+ * 内存中仅保存当前路径上每一级目录的列表，而不是整棵目录树
+ *
+ * @author rxliuli
+ */
+class LsRIterator implements Iterator<Stat> {
+    private final FtpOperator ftpOperator;
+    /**
+     * 当前路径上每一级目录尚未返回的文件信息
+     */
+    private final Deque<Iterator<Stat>> stack = new ArrayDeque<>();
+    /**
+     * 已经返回但还未列出的目录
+     */
+    private String pendingDir;
+
+    LsRIterator(FtpOperator ftpOperator, String path) {
+        this.ftpOperator = ftpOperator;
+        this.pendingDir = path;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pendingDir != null) {
+            stack.push(ftpOperator.ls(pendingDir).iterator());
+            pendingDir = null;
+        }
+        while (!stack.isEmpty()) {
+            if (stack.peek().hasNext()) {
+                return true;
+            }
+            stack.pop();
+        }
+        return false;
+    }
+
+    @Override
+    public Stat next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Stat stat = stack.peek().next();
+        if (stat.isDirectory()) {
+            pendingDir = stat.getPath();
+        }
+        return stat;
+    }
+}
@@ -0,0 +1,303 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.SEPARATOR;
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.join;
+
+/**
+ * 本地目录与远程目录之间的同步
+ * 首先分别列出两边的所有文件，按照相对路径比较大小与修改时间，然后一次性创建缺失的目录，
+ * 再使用固定大小的线程池只传输发生了变化的文件，最后可选的删除目标目录中多余的文件
+ * 判断文件是否变化：目标不存在，大小不同，或者源文件比目标文件更新
+ *
+ * @author rxliuli
+ */
+class Mirror {
+    static final int DEFAULT_PARALLELISM = 4;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final FtpOperator ftpOperator;
+    private final int parallelism;
+    private final boolean delete;
+
+    private final AtomicLong files = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private long skipped;
+    private long dirs;
+    private long deleted;
+    private final List<String> failed = Collections.synchronizedList(new ArrayList<>());
+
+    Mirror(FtpOperator ftpOperator, int parallelism, boolean delete) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.ftpOperator = ftpOperator;
+        this.parallelism = parallelism;
+        this.delete = delete;
+    }
+
+    /**
+     * 将本地目录同步到远程目录
+     *
+     * @param localDir  本地目录
+     * @param remoteDir 远程目录
+     * @return 同步的结果
+     */
+    MirrorResult up(File localDir, String remoteDir) {
+        final String root = normalize(remoteDir);
+        final SortedMap<String, File> local = scanLocal(localDir);
+        final SortedMap<String, Stat> remote = scanRemote(root);
+        if (!ftpOperator.mkdirR(root)) {
+            failed.add(SEPARATOR);
+            return result();
+        }
+        //按照路径排序，父目录总是在子目录之前创建
+        ftpOperator.session(ftp -> {
+            local.forEach((path, file) -> {
+                final Stat stat = remote.get(path);
+                if (!file.isDirectory() || (stat != null && stat.isDirectory())) {
+                    return;
+                }
+                if (stat == null && ftp.mkdir(join(root, path))) {
+                    dirs++;
+                } else {
+                    failed.add(path);
+                }
+            });
+            return null;
+        });
+        final Map<String, Supplier<Long>> tasks = new LinkedHashMap<>();
+        local.forEach((path, file) -> {
+            if (!file.isFile()) {
+                return;
+            }
+            if (!isChanged(file, remote.get(path), true)) {
+                skipped++;
+                return;
+            }
+            tasks.put(path, () -> ftpOperator.put(file, join(root, path), false) ? file.length() : null);
+        });
+        transfer(tasks);
+        if (delete) {
+            extraneous(remote.keySet(), local.keySet()).forEach(path -> {
+                final String remotePath = join(root, path);
+                if (remote.get(path).isDirectory() ? ftpOperator.rmdirR(remotePath) : ftpOperator.rm(remotePath)) {
+                    deleted++;
+                } else {
+                    failed.add(path);
+                }
+            });
+        }
+        return result();
+    }
+
+    /**
+     * 将远程目录同步到本地目录
+     *
+     * @param remoteDir 远程目录
+     * @param localDir  本地目录
+     * @return 同步的结果
+     */
+    MirrorResult down(String remoteDir, File localDir) {
+        final String root = normalize(remoteDir);
+        final SortedMap<String, Stat> remote = scanRemote(root);
+        final SortedMap<String, File> local = scanLocal(localDir);
+        if (!localDir.isDirectory() && !localDir.mkdirs()) {
+            failed.add(SEPARATOR);
+            return result();
+        }
+        remote.forEach((path, stat) -> {
+            final File file = local.get(path);
+            if (!stat.isDirectory() || (file != null && file.isDirectory())) {
+                return;
+            }
+            if (file == null && new File(localDir, path).mkdir()) {
+                dirs++;
+            } else {
+                failed.add(path);
+            }
+        });
+        final Map<String, Supplier<Long>> tasks = new LinkedHashMap<>();
+        remote.forEach((path, stat) -> {
+            if (stat.isDirectory()) {
+                return;
+            }
+            if (!isChanged(local.get(path), stat, false)) {
+                skipped++;
+                return;
+            }
+            tasks.put(path, () -> {
+                final File file = new File(localDir, path);
+                if (!ftpOperator.get(join(root, path), file, false)) {
+                    return null;
+                }
+                //保持与远程文件相同的修改时间，下次同步时才能判断是否变化
+                if (stat.getMtime() != null && !file.setLastModified(stat.lastModified())) {
+                    log.info("Set last modified time failed: {}", file);
+                }
+                return file.length();
+            });
+        });
+        transfer(tasks);
+        if (delete) {
+            extraneous(local.keySet(), remote.keySet()).forEach(path -> {
+                final File file = new File(localDir, path);
+                try {
+                    if (file.isDirectory()) {
+                        FileUtils.deleteDirectory(file);
+                    } else {
+                        Files.delete(file.toPath());
+                    }
+                    deleted++;
+                } catch (IOException e) {
+                    log.error("Delete local file failed: {}", e);
+                    failed.add(path);
+                }
+            });
+        }
+        return result();
+    }
+
+    /**
+     * 判断文件是否需要传输
+     *
+     * @param file 本地文件
+     * @param stat 远程文件
+     * @param isUp 是否是上传
+     * @return 是否需要传输
+     */
+    private boolean isChanged(File file, Stat stat, boolean isUp) {
+        if (file == null || stat == null || file.isDirectory() || stat.isDirectory()) {
+            return true;
+        }
+        if (file.length() != stat.length()) {
+            return true;
+        }
+        if (stat.getMtime() == null) {
+            return false;
+        }
+        return isUp ? file.lastModified() > stat.lastModified() : stat.lastModified() > file.lastModified();
+    }
+
+    /**
+     * 使用 {@link BulkTransfer} 执行传输任务，等待全部完成
+     * 注意：每个线程都会单独占用一个连接，所以实际的并发数还受到连接池最大连接数的限制
+     *
+     * @param tasks 传输任务，k 是相对路径，v 返回传输的字节数，失败时返回 null
+     */
+    private void transfer(Map<String, Supplier<Long>> tasks) {
+        final Map<String, Supplier<Boolean>> items = new LinkedHashMap<>();
+        tasks.forEach((path, task) -> items.put(path, () -> {
+            final Long length = task.get();
+            if (length == null) {
+                return false;
+            }
+            files.incrementAndGet();
+            bytes.addAndGet(length);
+            return true;
+        }));
+        final BulkTransfer<String> transfer = BulkTransfer.start(items, parallelism);
+        transfer.getAll().join();
+        transfer.getItems().forEach((path, future) -> {
+            try {
+                if (!future.join()) {
+                    failed.add(path);
+                }
+            } catch (CompletionException e) {
+                log.error("Mirror transfer failed: {}", e.getCause());
+                failed.add(path);
+            }
+        });
+    }
+
+    /**
+     * 获取目标中多余的路径，如果一个目录是多余的，则其中的路径不再单独列出
+     *
+     * @param target 目标中的所有相对路径
+     * @param source 源中的所有相对路径
+     * @return 多余的路径
+     */
+    private List<String> extraneous(Set<String> target, Set<String> source) {
+        final Set<String> result = new LinkedHashSet<>();
+        for (String path : target) {
+            if (!source.contains(path) && !hasAncestor(result, path)) {
+                result.add(path);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    private boolean hasAncestor(Set<String> paths, String path) {
+        for (int i = path.lastIndexOf(SEPARATOR); i > 0; i = path.lastIndexOf(SEPARATOR, i - 1)) {
+            if (paths.contains(path.substring(0, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 列出本地目录下的所有文件/目录
+     *
+     * @param dir 本地目录
+     * @return k 是以 / 分割的相对路径，按照路径排序
+     */
+    private SortedMap<String, File> scanLocal(File dir) {
+        final SortedMap<String, File> result = new TreeMap<>();
+        if (!dir.isDirectory()) {
+            return result;
+        }
+        final Path root = dir.toPath();
+        try (Stream<Path> stream = Files.walk(root)) {
+            stream.filter(path -> !path.equals(root))
+                    .forEach(path -> result.put(root.relativize(path).toString().replace(File.separatorChar, '/'), path.toFile()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return result;
+    }
+
+    /**
+     * 列出远程目录下的所有文件/目录
+     *
+     * @param dir 远程目录
+     * @return k 是相对路径，按照路径排序
+     */
+    private SortedMap<String, Stat> scanRemote(String dir) {
+        final SortedMap<String, Stat> result = new TreeMap<>();
+        if (!ftpOperator.exist(dir)) {
+            return result;
+        }
+        final String prefix = dir.endsWith(SEPARATOR) ? dir : dir + SEPARATOR;
+        for (Stat stat : ftpOperator.lsR(dir, parallelism)) {
+            result.put(stat.getPath().substring(prefix.length()), stat);
+        }
+        return result;
+    }
+
+    /**
+     * 去掉远程目录末尾多余的分隔符
+     */
+    private String normalize(String dir) {
+        return dir.length() > 1 && dir.endsWith(SEPARATOR) ? dir.substring(0, dir.length() - 1) : dir;
+    }
+
+    private MirrorResult result() {
+        return new MirrorResult(files.get(), bytes.get(), skipped, dirs, deleted, new ArrayList<>(failed));
+    }
+}
@@ -0,0 +1,88 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 目录同步的结果
+ *
+ * @author rxliuli
+ */
+public class MirrorResult {
+    /**
+     * 传输的文件数量
+     */
+    private final long files;
+    /**
+     * 传输的字节数
+     */
+    private final long bytes;
+    /**
+     * 没有变化而跳过的文件数量
+     */
+    private final long skipped;
+    /**
+     * 创建的目录数量
+     */
+    private final long dirs;
+    /**
+     * 删除的多余文件/目录数量，目录只计算最上层的一个
+     */
+    private final long deleted;
+    /**
+     * 处理失败的相对路径
+     */
+    private final List<String> failed;
+
+    MirrorResult(long files, long bytes, long skipped, long dirs, long deleted, List<String> failed) {
+        this.files = files;
+        this.bytes = bytes;
+        this.skipped = skipped;
+        this.dirs = dirs;
+        this.deleted = deleted;
+        this.failed = Collections.unmodifiableList(failed);
+    }
+
+    public long getFiles() {
+        return files;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getDirs() {
+        return dirs;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public List<String> getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return 是否全部成功
+     */
+    public boolean isSuccess() {
+        return failed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "MirrorResult{" +
+                "files=" + files +
+                ", bytes=" + bytes +
+                ", skipped=" + skipped +
+                ", dirs=" + dirs +
+                ", deleted=" + deleted +
+                ", failed=" + failed +
+                '}';
+    }
+}
@@ -0,0 +1,112 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import com.rxliuli.example.ftpdemo.common.util.ThreadUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行递归获取文件信息
+ * 同级目录将被并发的展开，所有目录列出完成之后再按照与 {@link FtpOperator#lsR(String)} 相同的顺序组装结果
+ * 注意：实际的并发数还受到连接池最大连接数的限制
+ *
+ * @author rxliuli
+ */
+class ParallelLister {
+    private final FtpOperator ftpOperator;
+    private final int parallelism;
+    /**
+     * 每个目录的列表结果
+     */
+    private final Map<String, List<Stat>> listings = new ConcurrentHashMap<>();
+    /**
+     * 尚未完成的列出任务数量
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private ExecutorService executor;
+
+    ParallelLister(FtpOperator ftpOperator, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.ftpOperator = ftpOperator;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * 递归获取指定目录下的所有文件信息
+     *
+     * @param path 指定目录
+     * @return 所有文件信息，顺序与 {@link FtpOperator#lsR(String)} 一致
+     */
+    List<Stat> lsR(String path) {
+        executor = Executors.newFixedThreadPool(parallelism, ThreadUtil.daemonThreadFactory("ftp-lsR-"));
+        try {
+            submit(path);
+            done.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+        final List<Stat> result = new ArrayList<>();
+        collect(path, result);
+        return result;
+    }
+
+    /**
+     * 提交一个目录的列出任务，列出完成后继续提交其子目录
+     *
+     * @param dir 目录
+     */
+    private void submit(String dir) {
+        pending.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    final List<Stat> ls = ftpOperator.ls(dir);
+                    listings.put(dir, ls);
+                    ls.stream()
+                            .filter(Stat::isDirectory)
+                            .forEach(stat -> submit(stat.getPath()));
+                } catch (Throwable e) {
+                    done.completeExceptionally(e);
+                } finally {
+                    finish();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            //发生错误之后线程池已经关闭
+            finish();
+        }
+    }
+
+    private void finish() {
+        if (pending.decrementAndGet() == 0) {
+            done.complete(null);
+        }
+    }
+
+    /**
+     * 按照先序遍历组装结果
+     *
+     * @param dir    目录
+     * @param result 结果列表
+     */
+    private void collect(String dir, List<Stat> result) {
+        for (Stat stat : listings.getOrDefault(dir, Collections.emptyList())) {
+            result.add(stat);
+            if (stat.isDirectory()) {
+                collect(stat.getPath(), result);
+            }
+        }
+    }
+}
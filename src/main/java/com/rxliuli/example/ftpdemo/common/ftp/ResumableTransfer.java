@@ -0,0 +1,205 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.Properties;
+
+/**
+ * 可断点续传的上传/下载
+ * 每次传输都会在本地文件旁边保存一个检查点文件，记录传输的方向，远程路径以及源文件的大小与修改时间。
+ * 再次传输时如果检查点与源文件一致，则从已经确认的偏移量继续：上传以服务器上的文件大小为准，下载以本地文件的大小为准。
+ * 传输成功并校验大小之后删除检查点。
+ * 服务器不支持从偏移量开始下载（例如拒绝 REST）时清空本地文件从头下载，避免每次续传都失败
+ *
+ * @author rxliuli
+ */
+class ResumableTransfer {
+    /**
+     * 检查点文件的后缀
+     */
+    static final String CHECKPOINT_SUFFIX = ".ftp-checkpoint";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * 没有打开远程文件的流，例如服务器拒绝了 REST
+     */
+    private static final long NOT_OPENED = -1L;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final FtpOperator ftpOperator;
+
+    ResumableTransfer(FtpOperator ftpOperator) {
+        this.ftpOperator = ftpOperator;
+    }
+
+    /**
+     * 上传文件
+     *
+     * @param localFile      本地文件
+     * @param remoteFilePath 远程文件路径
+     * @return 是否上传成功
+     */
+    boolean put(File localFile, String remoteFilePath) {
+        final File checkpointFile = checkpointFile(localFile);
+        final long length = localFile.length();
+        final Properties checkpoint = checkpoint("put", remoteFilePath, length, localFile.lastModified());
+        long offset = 0;
+        if (checkpoint.equals(read(checkpointFile))) {
+            final Stat remote = ftpOperator.stat(remoteFilePath);
+            if (remote != null && !remote.isDirectory() && remote.length() <= length) {
+                offset = remote.length();
+            }
+        } else {
+            write(checkpointFile, checkpoint);
+        }
+        final boolean success;
+        if (offset == 0) {
+            success = ftpOperator.put(localFile, remoteFilePath, true);
+        } else if (offset == length) {
+            success = true;
+        } else {
+            log.info("Resume put {} from offset {}", remoteFilePath, offset);
+            success = append(localFile, offset, remoteFilePath);
+        }
+        if (!success) {
+            return false;
+        }
+        final Stat remote = ftpOperator.stat(remoteFilePath);
+        if (remote == null || remote.length() != length) {
+            log.error("Resumable put failed, expected {} bytes but remote has {}: {}", length, remote == null ? null : remote.length(), remoteFilePath);
+            return false;
+        }
+        return complete(checkpointFile);
+    }
+
+    /**
+     * 下载文件
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件
+     * @return 是否下载成功
+     */
+    boolean get(String remoteFilePath, File localFile) {
+        final Stat remote = ftpOperator.stat(remoteFilePath);
+        if (remote == null || remote.isDirectory()) {
+            log.error("Resumable get failed, remote file not found: {}", remoteFilePath);
+            return false;
+        }
+        final File checkpointFile = checkpointFile(localFile);
+        final long length = remote.length();
+        final Properties checkpoint = checkpoint("get", remoteFilePath, length, remote.lastModified());
+        long offset = 0;
+        if (checkpoint.equals(read(checkpointFile)) && localFile.length() <= length) {
+            offset = localFile.length();
+        } else {
+            final File parent = localFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                log.error("Resumable get failed, cannot create local dir: {}", parent);
+                return false;
+            }
+            write(checkpointFile, checkpoint);
+        }
+        if (offset < length) {
+            if (offset > 0) {
+                log.info("Resume get {} from offset {}", remoteFilePath, offset);
+            }
+            Long written = download(remoteFilePath, localFile, offset);
+            if (written != null && written == NOT_OPENED && offset > 0) {
+                log.info("Resume get {} from offset {} is not supported, restart from the beginning", remoteFilePath, offset);
+                written = download(remoteFilePath, localFile, 0);
+            }
+            if (written == null || written == NOT_OPENED) {
+                return false;
+            }
+        }
+        if (localFile.length() != length) {
+            log.error("Resumable get failed, expected {} bytes but local has {}: {}", length, localFile.length(), localFile);
+            return false;
+        }
+        return complete(checkpointFile);
+    }
+
+    /**
+     * 从偏移量开始下载，偏移量为 0 时清空本地文件
+     *
+     * @return 写入的字节数，失败时为 null，无法打开远程文件时为 {@link #NOT_OPENED}
+     */
+    private Long download(String remoteFilePath, File localFile, long start) {
+        return ftpOperator.get(remoteFilePath, start, is -> {
+            if (is == null) {
+                return NOT_OPENED;
+            }
+            //不使用缓冲输出流，已经读取到的数据都会写入文件，下次可以从这里继续
+            try (OutputStream os = new FileOutputStream(localFile, start > 0)) {
+                return IOUtils.copyLarge(is, os, new byte[BUFFER_SIZE]);
+            } catch (IOException e) {
+                log.error("Resumable get failed: {}", e);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 跳过本地文件开头已经上传的部分，将剩余的部分追加到远程文件
+     */
+    private boolean append(File localFile, long offset, String remoteFilePath) {
+        final InputStream is;
+        try {
+            is = new FileInputStream(localFile);
+            IOUtils.skipFully(is, offset);
+        } catch (IOException e) {
+            log.error("Resumable put failed: {}", e);
+            return false;
+        }
+        return ftpOperator.append(is, remoteFilePath);
+    }
+
+    /**
+     * @param localFile 本地文件
+     * @return 本地文件对应的检查点文件
+     */
+    static File checkpointFile(File localFile) {
+        return new File(localFile.getAbsolutePath() + CHECKPOINT_SUFFIX);
+    }
+
+    private Properties checkpoint(String type, String remoteFilePath, long size, long mtime) {
+        final Properties properties = new Properties();
+        properties.setProperty("type", type);
+        properties.setProperty("remote", remoteFilePath);
+        properties.setProperty("size", String.valueOf(size));
+        properties.setProperty("mtime", String.valueOf(mtime));
+        return properties;
+    }
+
+    private Properties read(File checkpointFile) {
+        final Properties properties = new Properties();
+        if (!checkpointFile.isFile()) {
+            return properties;
+        }
+        try (InputStream is = new FileInputStream(checkpointFile)) {
+            properties.load(is);
+        } catch (IOException e) {
+            log.error("Read checkpoint failed: {}", e);
+        }
+        return properties;
+    }
+
+    private void write(File checkpointFile, Properties checkpoint) {
+        try (OutputStream os = new FileOutputStream(checkpointFile)) {
+            checkpoint.store(os, "ftp transfer checkpoint");
+        } catch (IOException e) {
+            //没有检查点只会导致无法续传，所以不影响本次传输
+            log.error("Write checkpoint failed: {}", e);
+        }
+    }
+
+    private boolean complete(File checkpointFile) {
+        if (checkpointFile.exists() && !checkpointFile.delete()) {
+            log.error("Delete checkpoint failed: {}", checkpointFile);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,142 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferScheduler;
+import com.rxliuli.example.ftpdemo.common.util.ThreadUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.*;
+
+/**
+ * 分段并行下载
+ * 将远程文件拆分为若干个字节范围，每个范围使用单独的连接从对应的偏移量开始下载（ftp 使用 REST，sftp 使用偏移量），
+ * 并通过 {@link FileChannel} 写入本地文件的对应位置
+ *
+ * @author rxliuli
+ */
+class SegmentedDownloader {
+    /**
+     * 每一段的最小大小，小于两段的文件直接使用普通的下载
+     */
+    static final long MIN_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final FtpOperator ftpOperator;
+    private final int parallelism;
+
+    SegmentedDownloader(FtpOperator ftpOperator, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        this.ftpOperator = ftpOperator;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * 下载文件
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件
+     * @return 是否下载成功
+     */
+    boolean get(String remoteFilePath, File localFile) {
+        final Stat stat = ftpOperator.stat(remoteFilePath);
+        if (stat == null || stat.isDirectory() || stat.getSize() == null) {
+            log.error("Segmented get failed, remote file not found: {}", remoteFilePath);
+            return false;
+        }
+        final long size = stat.length();
+        final int segments = (int) Math.max(1, Math.min(parallelism, size / MIN_SEGMENT_SIZE));
+        if (segments == 1) {
+            return ftpOperator.get(remoteFilePath, localFile);
+        }
+        final File parent = localFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            log.error("Segmented get failed, cannot create local dir: {}", parent);
+            return false;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(segments, ThreadUtil.daemonThreadFactory("ftp-get-"));
+        try (FileChannel channel = FileChannel.open(localFile.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final long segmentSize = (size + segments - 1) / segments;
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[segments];
+            for (int i = 0; i < segments; i++) {
+                final long start = i * segmentSize;
+                final long length = Math.min(segmentSize, size - start);
+                //分段使用调用方的优先级
+                futures[i] = CompletableFuture.supplyAsync(TransferScheduler.inheritPriority(() -> {
+                    getSegment(remoteFilePath, channel, start, length);
+                    return null;
+                }), executor);
+            }
+            CompletableFuture.allOf(futures).join();
+            if (channel.size() != size) {
+                log.error("Segmented get failed, expected {} bytes but got {}: {}", size, channel.size(), remoteFilePath);
+                return false;
+            }
+            return true;
+        } catch (IOException | CompletionException e) {
+            log.error("Segmented get failed: {}", e);
+            return false;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 下载一段并写入本地文件的对应位置
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param channel        本地文件
+     * @param start          开始的偏移量
+     * @param length         这一段的长度
+     */
+    private void getSegment(String remoteFilePath, FileChannel channel, long start, long length) {
+        final Long written = ftpOperator.get(remoteFilePath, start, is -> {
+            if (is == null) {
+                return null;
+            }
+            try {
+                return copy(is, channel, start, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (written == null || written != length) {
+            throw new RuntimeException("Segment [" + start + ", " + (start + length) + ") of " + remoteFilePath + " is incomplete");
+        }
+    }
+
+    /**
+     * 将流中最多 {@param length} 个字节写入到本地文件的指定位置
+     *
+     * @return 实际写入的字节数
+     */
+    private long copy(InputStream is, FileChannel channel, long position, long length) throws IOException {
+        final byte[] bytes = new byte[(int) Math.min(BUFFER_SIZE, length)];
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long remaining = length;
+        while (remaining > 0) {
+            final int read = is.read(bytes, 0, (int) Math.min(bytes.length, remaining));
+            if (read < 0) {
+                break;
+            }
+            buffer.clear();
+            buffer.limit(read);
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            remaining -= read;
+        }
+        return length - remaining;
+    }
+}
@@ -1,73 +1,250 @@
 package com.rxliuli.example.ftpdemo.common.ftp;
 
+import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+
 import java.util.Objects;
 
 /**
  * 统一的文件信息
+ * 为了在监听大量文件时节省内存，内部使用紧凑的存储方式：
+ * 列出目录得到的文件信息只保存父目录与文件名，同一次列出的文件共享同一个父目录字符串，完整路径在每次获取时拼接，不会保存；
+ * 只有通过路径创建或者修改过路径的文件信息才会保存完整路径；
+ * 是否是目录，文件大小与修改时间均使用基本类型保存，是否存在使用标志位表示；
+ * 哈希值在第一次计算之后缓存，直到对象被修改
  *
  * @author rxliuli
  */
 public class Stat {
+    private static final byte FLAG_DIR = 1;
+    private static final byte FLAG_HAS_DIR = 1 << 1;
+    private static final byte FLAG_HAS_SIZE = 1 << 2;
+    private static final byte FLAG_HAS_MTIME = 1 << 3;
+
     /**
      * 文件名
      */
     private String name;
     /**
-     * 路径
+     * 父目录的路径，根目录没有父目录
+     */
+    private String parent;
+    /**
+     * 完整路径，由 {@link #child} 创建时为 null，此时完整路径由父目录与文件名拼接
      */
     private String path;
     /**
-     * 是否是文件
+     * 标志位，包括是否是目录以及各个字段是否存在
      */
-    private Boolean isDir;
+    private byte flags;
     /**
      * 文件大小，如果是文件夹则默认为 0
      */
-    private Long size;
+    private long size;
+    /**
+     * 最后修改时间的毫秒数
+     */
+    private long mtime;
+    /**
+     * 权限，格式为 rwxr-xr-x，服务器未提供时为 null
+     */
+    private String permissions;
+    /**
+     * 缓存的哈希值，为 0 时表示尚未计算
+     */
+    private int hash;
 
     public Stat() {
     }
 
+    /**
+     * 与 {@link #setName(String)}/{@link #setPath(String)} 相同，文件名与路径相互独立，不会检查两者是否一致
+     */
     public Stat(String name, String path, Boolean isDir, Long size) {
+        setPath(path);
         this.name = name;
-        this.path = path;
-        this.isDir = isDir;
-        this.size = size;
+        setIsDir(isDir);
+        setSize(size);
+    }
+
+    public Stat(String name, String path, Boolean isDir, Long size, Long mtime, String permissions) {
+        this(name, path, isDir, size);
+        setMtime(mtime);
+        setPermissions(permissions);
+    }
+
+    /**
+     * 复制一个文件信息，与原本的文件信息共享父目录字符串
+     *
+     * @param stat 被复制的文件信息
+     */
+    public Stat(Stat stat) {
+        this.name = stat.name;
+        this.parent = stat.parent;
+        this.path = stat.path;
+        this.flags = stat.flags;
+        this.size = stat.size;
+        this.mtime = stat.mtime;
+        this.permissions = stat.permissions;
+        this.hash = stat.hash;
+    }
+
+    /**
+     * 创建目录下的一个文件信息
+     * 列出同一个目录时请传入同一个 {@param parent} 字符串，这样所有的文件信息将共享它
+     *
+     * @param parent      父目录的路径
+     * @param name        文件名
+     * @param isDir       是否是目录
+     * @param size        文件大小
+     * @param mtime       最后修改时间的毫秒数，未知时为 null
+     * @param permissions 权限，未知时为 null
+     * @return 文件信息
+     */
+    public static Stat child(String parent, String name, boolean isDir, long size, Long mtime, String permissions) {
+        final Stat stat = new Stat();
+        stat.parent = normalizeParent(parent);
+        stat.name = name;
+        stat.flags = (byte) (FLAG_HAS_DIR | FLAG_HAS_SIZE | (isDir ? FLAG_DIR : 0));
+        stat.size = size;
+        stat.setMtime(mtime);
+        stat.setPermissions(permissions);
+        return stat;
+    }
+
+    /**
+     * 去掉父目录末尾多余的分隔符，保证相同的路径拥有相同的表示
+     */
+    private static String normalizeParent(String parent) {
+        if (parent != null && parent.length() > 1 && parent.endsWith(PathUtil.SEPARATOR)) {
+            return parent.substring(0, parent.length() - 1);
+        }
+        return parent;
+    }
+
+    private boolean hasFlag(byte flag) {
+        return (flags & flag) != 0;
+    }
+
+    private void setFlag(byte flag, boolean value) {
+        flags = (byte) (value ? flags | flag : flags & ~flag);
+        hash = 0;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * 修改文件名，不会修改路径
+     *
+     * @param name 文件名
+     * @return 当前对象
+     */
     public Stat setName(String name) {
+        //先保存原本的路径，避免之后拼接出新的路径
+        if (path == null && parent != null) {
+            path = join(parent, this.name);
+        }
         this.name = name;
+        hash = 0;
         return this;
     }
 
+    /**
+     * 获取完整路径，没有保存完整路径时拼接父目录与文件名
+     *
+     * @return 完整路径
+     */
     public String getPath() {
+        if (path == null && parent != null) {
+            return join(parent, name);
+        }
         return path;
     }
 
+    private static String join(String parent, String name) {
+        return parent.endsWith(PathUtil.SEPARATOR) ? parent + name : parent + PathUtil.SEPARATOR + name;
+    }
+
+    /**
+     * 设置完整路径，同时修改父目录，不会修改文件名
+     *
+     * @param path 完整路径
+     * @return 当前对象
+     */
     public Stat setPath(String path) {
         this.path = path;
+        this.parent = path == null || PathUtil.SEPARATOR.equals(path) ? null : PathUtil.getParentDir(path);
+        hash = 0;
         return this;
     }
 
+    /**
+     * @return 父目录的路径，根目录以及没有路径时为 null
+     */
+    public String getParent() {
+        return parent;
+    }
+
     public Boolean getIsDir() {
-        return isDir;
+        return hasFlag(FLAG_HAS_DIR) ? hasFlag(FLAG_DIR) : null;
     }
 
     public Stat setIsDir(Boolean dir) {
-        isDir = dir;
+        setFlag(FLAG_HAS_DIR, dir != null);
+        setFlag(FLAG_DIR, dir != null && dir);
         return this;
     }
 
+    /**
+     * @return 是否是目录，未知时为 false
+     */
+    public boolean isDirectory() {
+        return hasFlag(FLAG_DIR);
+    }
+
     public Long getSize() {
-        return size;
+        return hasFlag(FLAG_HAS_SIZE) ? size : null;
     }
 
     public Stat setSize(Long size) {
-        this.size = size;
+        setFlag(FLAG_HAS_SIZE, size != null);
+        this.size = size == null ? 0 : size;
+        return this;
+    }
+
+    /**
+     * @return 文件大小，未知时为 0
+     */
+    public long length() {
+        return size;
+    }
+
+    public Long getMtime() {
+        return hasFlag(FLAG_HAS_MTIME) ? mtime : null;
+    }
+
+    public Stat setMtime(Long mtime) {
+        setFlag(FLAG_HAS_MTIME, mtime != null);
+        this.mtime = mtime == null ? 0 : mtime;
+        return this;
+    }
+
+    /**
+     * @return 最后修改时间的毫秒数，未知时为 0
+     */
+    public long lastModified() {
+        return mtime;
+    }
+
+    public String getPermissions() {
+        return permissions;
+    }
+
+    public Stat setPermissions(String permissions) {
+        //权限的取值很少，所以使用常量池共享
+        this.permissions = permissions == null ? null : permissions.intern();
+        hash = 0;
         return this;
     }
 
@@ -80,24 +257,49 @@ public class Stat {
             return false;
         }
         Stat stat = (Stat) o;
-        return Objects.equals(getName(), stat.getName()) &&
-                Objects.equals(getPath(), stat.getPath()) &&
-                Objects.equals(getIsDir(), stat.getIsDir()) &&
-                Objects.equals(getSize(), stat.getSize());
+        return flags == stat.flags &&
+                size == stat.size &&
+                mtime == stat.mtime &&
+                Objects.equals(name, stat.name) &&
+                samePath(stat) &&
+                Objects.equals(permissions, stat.permissions);
+    }
+
+    /**
+     * 比较路径，两者都没有保存完整路径时直接比较父目录，避免拼接字符串
+     */
+    private boolean samePath(Stat stat) {
+        if (path == null && stat.path == null) {
+            return Objects.equals(parent, stat.parent);
+        }
+        return Objects.equals(getPath(), stat.getPath());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getName(), getPath(), getIsDir(), getSize());
+        int h = hash;
+        if (h == 0) {
+            h = Objects.hashCode(name);
+            //相同的路径总是有相同的父目录，所以只需要计算父目录的哈希值
+            h = 31 * h + Objects.hashCode(parent);
+            h = 31 * h + flags;
+            h = 31 * h + Long.hashCode(size);
+            h = 31 * h + Long.hashCode(mtime);
+            h = 31 * h + Objects.hashCode(permissions);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("Stat{");
         sb.append("name='").append(name).append('\'');
-        sb.append(", path='").append(path).append('\'');
-        sb.append(", isDir=").append(isDir);
-        sb.append(", size=").append(size);
+        sb.append(", path='").append(getPath()).append('\'');
+        sb.append(", isDir=").append(getIsDir());
+        sb.append(", size=").append(getSize());
+        sb.append(", mtime=").append(getMtime());
+        sb.append(", permissions='").append(permissions).append('\'');
         sb.append('}');
         return sb.toString();
     }
@@ -0,0 +1,76 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+/**
+ * 带校验的传输结果
+ * 摘要是在数据流经传输的同时计算的，不需要再次读取数据。如果服务器支持同一种算法，还会与服务器端计算的结果进行比较
+ *
+ * @author rxliuli
+ */
+public class TransferResult {
+    /**
+     * 是否传输成功，服务器端的摘要与本地不一致时也视为失败
+     */
+    private final boolean success;
+    /**
+     * 传输的字节数
+     */
+    private final long bytes;
+    /**
+     * 校验算法
+     */
+    private final ChecksumAlgorithm algorithm;
+    /**
+     * 传输过程中计算的摘要，小写的十六进制字符串，传输失败时为 null
+     */
+    private final String checksum;
+    /**
+     * 服务器端计算的摘要，服务器不支持时为 null
+     */
+    private final String serverChecksum;
+
+    TransferResult(boolean success, long bytes, ChecksumAlgorithm algorithm, String checksum, String serverChecksum) {
+        this.success = success;
+        this.bytes = bytes;
+        this.algorithm = algorithm;
+        this.checksum = checksum;
+        this.serverChecksum = serverChecksum;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public ChecksumAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public String getServerChecksum() {
+        return serverChecksum;
+    }
+
+    /**
+     * @return 是否已经与服务器端的摘要比较并且一致
+     */
+    public boolean isVerified() {
+        return checksum != null && checksum.equalsIgnoreCase(serverChecksum);
+    }
+
+    @Override
+    public String toString() {
+        return "TransferResult{" +
+                "success=" + success +
+                ", bytes=" + bytes +
+                ", algorithm=" + algorithm +
+                ", checksum='" + checksum + '\'' +
+                ", serverChecksum='" + serverChecksum + '\'' +
+                '}';
+    }
+}
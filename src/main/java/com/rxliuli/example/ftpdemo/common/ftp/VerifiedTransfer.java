@@ -0,0 +1,105 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import com.rxliuli.example.ftpdemo.common.util.FileChannelUtil;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.function.Function;
+
+/**
+ * 带校验的上传/下载
+ * 摘要由包装在传输流外面的 {@link DigestInputStream} 计算，数据只经过一次。
+ * 传输完成后如果服务器能够计算同一种摘要，则由服务器读取它自己的文件进行比较，否则只把摘要返回给调用方
+ *
+ * @author rxliuli
+ */
+class VerifiedTransfer {
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTransfer.class);
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final FtpOperator ftpOperator;
+    private final ChecksumAlgorithm algorithm;
+
+    VerifiedTransfer(FtpOperator ftpOperator, ChecksumAlgorithm algorithm) {
+        this.ftpOperator = ftpOperator;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * 上传并校验
+     *
+     * @param localIs        本地数据
+     * @param remoteFilePath 远程文件路径
+     * @param isCreateDir    是否创建父目录
+     * @return 传输结果
+     */
+    TransferResult put(InputStream localIs, String remoteFilePath, boolean isCreateDir) {
+        final DigestInputStream digestIs = new DigestInputStream(localIs, algorithm.newDigest());
+        final CountingInputStream countingIs = new CountingInputStream(digestIs);
+        final boolean success = ftpOperator.put(countingIs, remoteFilePath, isCreateDir);
+        return result(remoteFilePath, success, countingIs.getByteCount(), digestIs.getMessageDigest());
+    }
+
+    /**
+     * 下载并校验
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件，父目录不存在时自动创建
+     * @return 传输结果
+     */
+    TransferResult get(String remoteFilePath, File localFile) {
+        final File parent = localFile.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            log.error("Verified get failed, cannot create local dir: {}", parent);
+            return new TransferResult(false, 0, algorithm, null, null);
+        }
+        final MessageDigest digest = algorithm.newDigest();
+        final Long bytes;
+        try {
+            bytes = ftpOperator.get(remoteFilePath, (Function<InputStream, Long>) is -> {
+                if (is == null) {
+                    return null;
+                }
+                try (final OutputStream os = FileChannelUtil.newOutputStream(localFile, false, FileChannelUtil.DEFAULT_BUFFER_SIZE)) {
+                    return IOUtils.copyLarge(new DigestInputStream(is, digest), os, new byte[FileChannelUtil.DEFAULT_BUFFER_SIZE]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Verified get failed: {}", e);
+            return new TransferResult(false, 0, algorithm, null, null);
+        }
+        return result(remoteFilePath, bytes != null, bytes == null ? 0 : bytes, digest);
+    }
+
+    /**
+     * 计算传输结果，传输成功时向服务器请求同一种摘要进行比较
+     */
+    private TransferResult result(String remoteFilePath, boolean success, long bytes, MessageDigest digest) {
+        if (!success) {
+            return new TransferResult(false, bytes, algorithm, null, null);
+        }
+        final String checksum = hex(digest.digest());
+        final String serverChecksum = ftpOperator.checksum(remoteFilePath, algorithm);
+        if (serverChecksum != null && !checksum.equalsIgnoreCase(serverChecksum)) {
+            log.error("Checksum mismatch for {}, {} local: {}, server: {}", remoteFilePath, algorithm, checksum, serverChecksum);
+            return new TransferResult(false, bytes, algorithm, checksum, serverChecksum);
+        }
+        return new TransferResult(true, bytes, algorithm, checksum, serverChecksum);
+    }
+
+    static String hex(byte[] bytes) {
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >>> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,130 @@
+package com.rxliuli.example.ftpdemo.common.ftp.async;
+
+import com.rxliuli.example.ftpdemo.common.ftp.FtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 异步的 ftp 操作接口
+ * 所有操作都在专用的 io 线程池中执行，调用线程不会被网络往返阻塞
+ * 请使用 {@link com.rxliuli.example.ftpdemo.common.ftp.BaseFtpOperatorFactory#getAsyncInstance} 获取实例
+ *
+ * @author rxliuli
+ */
+public interface AsyncFtpOperator extends AutoCloseable {
+    /**
+     * 包装一个 ftp 操作对象
+     *
+     * @param ftpOperator ftp 操作对象，关闭异步对象时也会被关闭
+     * @param threads     io 线程数，一般与连接池的最大连接数相同
+     * @return 异步的 ftp 操作对象
+     */
+    static AsyncFtpOperator of(FtpOperator ftpOperator, int threads) {
+        return new DefaultAsyncFtpOperator(ftpOperator, threads);
+    }
+
+    /**
+     * @return 同步的 ftp 操作对象
+     */
+    FtpOperator sync();
+
+    /**
+     * 上传文件
+     *
+     * @param localIs        本地文件
+     * @param remoteFilePath 远程文件路径
+     * @param isCreateDir    是否创建父目录
+     * @return 是否上传成功
+     */
+    CompletableFuture<Boolean> put(InputStream localIs, String remoteFilePath, boolean isCreateDir);
+
+    /**
+     * 上传文件
+     * 默认创建不存在的父级目录
+     *
+     * @param localFile      本地文件
+     * @param remoteFilePath 远程文件路径
+     * @return 是否上传成功
+     */
+    CompletableFuture<Boolean> put(File localFile, String remoteFilePath);
+
+    /**
+     * 下载文件
+     * 下载之前会自动创建目录
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件
+     * @return 是否下载成功
+     */
+    CompletableFuture<Boolean> get(String remoteFilePath, File localFile);
+
+    /**
+     * 下载文件
+     * 回调函数 {@param action} 同样在 io 线程中执行
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param action         操作
+     * @param <R>            返回类型
+     * @return 对流操作的返回值
+     */
+    <R> CompletableFuture<R> get(String remoteFilePath, Function<InputStream, R> action);
+
+    /**
+     * 创建目录
+     *
+     * @param path 目录路径
+     * @return 是否创建成功
+     */
+    CompletableFuture<Boolean> mkdir(String path);
+
+    /**
+     * 删除文件
+     *
+     * @param path 文件路径
+     * @return 是否删除成功
+     */
+    CompletableFuture<Boolean> rm(String path);
+
+    /**
+     * 删除空目录
+     *
+     * @param path 空目录路径
+     * @return 是否删除成功
+     */
+    CompletableFuture<Boolean> rmdir(String path);
+
+    /**
+     * 查看目录下的所有文件/目录
+     *
+     * @param path 目录路径
+     * @return 当前目录下的文件信息列表
+     */
+    CompletableFuture<List<Stat>> ls(String path);
+
+    /**
+     * 递归获取指定目录下的所有文件信息
+     *
+     * @param path 指定目录
+     * @return 所有文件信息
+     */
+    CompletableFuture<List<Stat>> lsR(String path);
+
+    /**
+     * 判断指定路径的文件/目录是否存在
+     *
+     * @param path 路径
+     * @return 是否存在
+     */
+    CompletableFuture<Boolean> exist(String path);
+
+    /**
+     * 关闭 io 线程池以及同步的 ftp 操作对象
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,100 @@
+package com.rxliuli.example.ftpdemo.common.ftp.async;
+
+import com.rxliuli.example.ftpdemo.common.ftp.FtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferScheduler;
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.util.ThreadUtil;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 基于固定大小线程池的异步 ftp 操作实现
+ * 每个操作都提交到 io 线程池中执行同步的 {@link FtpOperator}，
+ * 线程数一般与连接池的最大连接数相同，更多的线程也只会阻塞在借出连接上
+ *
+ * @author rxliuli
+ */
+class DefaultAsyncFtpOperator implements AsyncFtpOperator {
+    private final FtpOperator ftpOperator;
+    private final ExecutorService executor;
+
+    DefaultAsyncFtpOperator(FtpOperator ftpOperator, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.ftpOperator = ftpOperator;
+        this.executor = Executors.newFixedThreadPool(threads, ThreadUtil.daemonThreadFactory("ftp-async-"));
+    }
+
+    private <R> CompletableFuture<R> async(Supplier<R> supplier) {
+        return CompletableFuture.supplyAsync(TransferScheduler.inheritPriority(supplier), executor);
+    }
+
+    @Override
+    public FtpOperator sync() {
+        return ftpOperator;
+    }
+
+    @Override
+    public CompletableFuture<Boolean> put(InputStream localIs, String remoteFilePath, boolean isCreateDir) {
+        return async(() -> ftpOperator.put(localIs, remoteFilePath, isCreateDir));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> put(File localFile, String remoteFilePath) {
+        return async(() -> ftpOperator.put(localFile, remoteFilePath));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> get(String remoteFilePath, File localFile) {
+        return async(() -> ftpOperator.get(remoteFilePath, localFile));
+    }
+
+    @Override
+    public <R> CompletableFuture<R> get(String remoteFilePath, Function<InputStream, R> action) {
+        return async(() -> ftpOperator.get(remoteFilePath, action));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> mkdir(String path) {
+        return async(() -> ftpOperator.mkdir(path));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> rm(String path) {
+        return async(() -> ftpOperator.rm(path));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> rmdir(String path) {
+        return async(() -> ftpOperator.rmdir(path));
+    }
+
+    @Override
+    public CompletableFuture<List<Stat>> ls(String path) {
+        return async(() -> ftpOperator.ls(path));
+    }
+
+    @Override
+    public CompletableFuture<List<Stat>> lsR(String path) {
+        return async(() -> ftpOperator.lsR(path));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> exist(String path) {
+        return async(() -> ftpOperator.exist(path));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        ftpOperator.close();
+    }
+}
@@ -21,6 +21,10 @@ public class BasicFtpClientConfig extends BaseFtpClientConfig {
      * 文件传输形式，默认以二进制流传输
      */
     public static final int DEFAULT_FILE_TYPE = FTP.BINARY_FILE_TYPE;
+    /**
+     * 数据连接的套接字缓冲区大小，默认为 0 表示使用操作系统的默认值
+     */
+    public static final int DEFAULT_SOCKET_BUFFER_SIZE = 0;
     /**
      * 本地字符集的字符集，默认为 GBK
      */
@@ -33,6 +37,18 @@ public class BasicFtpClientConfig extends BaseFtpClientConfig {
      * 文件传输形式，默认以二进制流传输
      */
     private Integer fileType = DEFAULT_FILE_TYPE;
+    /**
+     * 数据连接的发送缓冲区大小（SO_SNDBUF），高延迟高带宽的网络需要调大
+     */
+    private Integer sendBufferSize = DEFAULT_SOCKET_BUFFER_SIZE;
+    /**
+     * 数据连接的接收缓冲区大小（SO_RCVBUF），高延迟高带宽的网络需要调大
+     */
+    private Integer receiveBufferSize = DEFAULT_SOCKET_BUFFER_SIZE;
+    /**
+     * 服务器支持时是否使用 MODE Z 压缩传输，默认关闭
+     */
+    private Boolean modeZ = false;
 
     public BasicFtpClientConfig(String username, String host, String password, Integer port) {
         super(username, host, password, port);
@@ -64,4 +80,31 @@ public class BasicFtpClientConfig extends BaseFtpClientConfig {
         this.serverCharset = serverCharset;
         return this;
     }
+
+    public Integer getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public BasicFtpClientConfig setSendBufferSize(Integer sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+        return this;
+    }
+
+    public Integer getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public BasicFtpClientConfig setReceiveBufferSize(Integer receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+        return this;
+    }
+
+    public Boolean getModeZ() {
+        return modeZ;
+    }
+
+    public BasicFtpClientConfig setModeZ(Boolean modeZ) {
+        this.modeZ = modeZ;
+        return this;
+    }
 }
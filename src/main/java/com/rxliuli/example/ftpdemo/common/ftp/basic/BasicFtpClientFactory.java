@@ -0,0 +1,110 @@
+package com.rxliuli.example.ftpdemo.common.ftp.basic;
+
+import com.rxliuli.example.ftpdemo.common.util.GlobalException;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * {@link FTPClient} 连接池的对象工厂
+ * 负责创建已经登录完成的连接，借出时使用 NOOP 校验连接是否可用
+ *
+ * @author rxliuli
+ */
+public class BasicFtpClientFactory extends BasePooledObjectFactory<FTPClient> {
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final BasicFtpClientConfig config;
+
+    public BasicFtpClientFactory(BasicFtpClientConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public FTPClient create() throws Exception {
+        final FTPClient ftp = new FTPClient();
+        try {
+            ftp.connect(config.getHost(), config.getPort());
+            if (!FTPReply.isPositiveCompletion(ftp.getReplyCode())) {
+                throw new GlobalException("ftp server refused connection: " + ftp.getReplyString());
+            }
+            if (!ftp.login(config.getUsername(), config.getPassword())) {
+                throw new GlobalException("ftp login failed: " + ftp.getReplyString());
+            }
+            //如果支持本地就使用 utf-8
+            if (FTPReply.isPositiveCompletion(ftp.sendCommand(
+                    "OPTS UTF8", "ON"))) {
+                config.setLocalCharset("UTF-8");
+            }
+            //客户端被动模式
+            ftp.enterLocalPassiveMode();
+            //文件传输形式
+            ftp.setFileType(config.getFileType());
+            //编码格式
+            ftp.setControlEncoding(config.getLocalCharset());
+            //传输时的缓冲区大小，默认只有 1KB
+            ftp.setBufferSize(config.getBufferSize());
+            if (config.getSendBufferSize() > 0) {
+                ftp.setSendDataSocketBufferSize(config.getSendBufferSize());
+            }
+            if (config.getReceiveBufferSize() > 0) {
+                ftp.setReceieveDataSocketBufferSize(config.getReceiveBufferSize());
+            }
+            //检测一次服务器支持的特性，结果将被缓存在连接中
+            log.info("Ftp server supports MLST: {}", ftp.hasFeature(BasicFtpOperator.MLST_FEATURE));
+            log.info("Ftp connection successful: {}", ftp.getRemoteAddress());
+            return ftp;
+        } catch (Exception e) {
+            destroy(ftp);
+            throw e;
+        }
+    }
+
+    @Override
+    public PooledObject<FTPClient> wrap(FTPClient ftp) {
+        return new DefaultPooledObject<>(ftp);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<FTPClient> p) {
+        final FTPClient ftp = p.getObject();
+        try {
+            return ftp.isConnected() && ftp.sendNoOp();
+        } catch (IOException e) {
+            log.info("Ftp connection validate failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroyObject(PooledObject<FTPClient> p) {
+        destroy(p.getObject());
+    }
+
+    /**
+     * 登出并关闭连接，关闭时发生的异常将被忽略
+     *
+     * @param ftp ftp 连接
+     */
+    private void destroy(FTPClient ftp) {
+        if (!ftp.isConnected()) {
+            return;
+        }
+        try {
+            ftp.logout();
+        } catch (IOException e) {
+            log.info("Logout ftp client failed: {}", e.getMessage());
+        }
+        try {
+            ftp.disconnect();
+        } catch (IOException e) {
+            log.error("Close ftp client failed: {}", e);
+        }
+    }
+}
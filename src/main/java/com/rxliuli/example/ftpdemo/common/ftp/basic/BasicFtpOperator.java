@@ -1,12 +1,26 @@
 package com.rxliuli.example.ftpdemo.common.ftp.basic;
 
+import com.rxliuli.example.ftpdemo.common.ftp.ChecksumAlgorithm;
+import com.rxliuli.example.ftpdemo.common.ftp.Compression;
 import com.rxliuli.example.ftpdemo.common.ftp.FtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.KnownDirCache;
 import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.ftp.progress.ProgressTracker;
+import com.rxliuli.example.ftpdemo.common.ftp.progress.TransferProgress;
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferScheduler;
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferScheduler.TransferLimiter;
 import com.rxliuli.example.ftpdemo.common.util.AllowErrorFunction;
+import com.rxliuli.example.ftpdemo.common.util.FileChannelUtil;
 import com.rxliuli.example.ftpdemo.common.util.GlobalException;
 import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.net.ftp.FTPFile;
 import org.apache.commons.net.ftp.FTPReply;
+import org.apache.commons.net.io.CopyStreamEvent;
+import org.apache.commons.net.io.CopyStreamListener;
+import org.apache.commons.pool2.ObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,6 +28,7 @@ import java.io.*;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.rxliuli.example.ftpdemo.common.util.PathUtil.*;
@@ -25,54 +40,182 @@ import static com.rxliuli.example.ftpdemo.common.util.PathUtil.*;
  * @author rxliuli
  */
 public class BasicFtpOperator implements FtpOperator {
+    /**
+     * FEAT 中表示支持 MLST/MLSD 的特性
+     */
+    static final String MLST_FEATURE = "MLST";
+    /**
+     * 传输模式的命令以及 FEAT 中对应的特性
+     */
+    private static final String MODE_FEATURE = "MODE";
+    private static final String MODE_Z = "Z";
+    private static final String MODE_S = "S";
+    /**
+     * 计算文件摘要的命令以及 FEAT 中对应的特性，选择算法使用 OPTS HASH
+     */
+    private static final String HASH_FEATURE = "HASH";
+    private static final String OPTS = "OPTS";
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     private final BasicFtpClientConfig config;
 
-    public BasicFtpOperator(BasicFtpClientConfig config) {
+    /**
+     * ftp 连接池
+     */
+    private final ObjectPool<FTPClient> pool;
+
+    /**
+     * 已知存在的目录，与会话对象共享
+     */
+    private final KnownDirCache knownDirs;
+
+    /**
+     * 会话绑定的连接，为 null 时表示每次操作都从连接池中借出连接
+     */
+    private final FTPClient bound;
+
+    /**
+     * 数据连接上的限速器，与会话对象共享
+     */
+    private final TransferLimiter limiter;
+
+    public BasicFtpOperator(BasicFtpClientConfig config, ObjectPool<FTPClient> pool) {
+        this(config, pool, new KnownDirCache(), TransferScheduler.getInstance().limiter(config.getMaxBytesPerSecond()), null);
+    }
+
+    private BasicFtpOperator(BasicFtpClientConfig config, ObjectPool<FTPClient> pool, KnownDirCache knownDirs, TransferLimiter limiter, FTPClient bound) {
         this.config = config;
+        this.pool = pool;
+        this.knownDirs = knownDirs;
+        this.limiter = limiter;
+        this.bound = bound;
     }
 
+    /**
+     * 从连接池中借出一个连接执行操作，完成后归还
+     * 如果操作过程中发生异常，则认为连接已经不可用并将之销毁
+     * 如果当前对象是 {@link #session(Function)} 中的会话对象，则直接使用绑定的连接
+     *
+     * @param f   执行方法
+     * @param <R> 执行方法的返回值类型
+     * @return 方法的返回值
+     */
     private <R> R using(AllowErrorFunction<FTPClient, R> f) {
-        final FTPClient ftp = new FTPClient();
+        if (bound != null) {
+            return apply(bound, f);
+        }
+        final FTPClient ftp;
+        try {
+            ftp = pool.borrowObject();
+        } catch (Exception e) {
+            log.error("Borrow ftp client failed: {}", e);
+            throw new RuntimeException(e);
+        }
+        boolean broken = true;
+        try {
+            final R result = apply(ftp, f);
+            broken = false;
+            return result;
+        } finally {
+            release(ftp, broken);
+        }
+    }
+
+    /**
+     * 在指定的连接上执行操作，并将检查型异常转换为运行时异常
+     *
+     * @param ftp 连接
+     * @param f   执行方法
+     * @param <R> 执行方法的返回值类型
+     * @return 方法的返回值
+     */
+    private <R> R apply(FTPClient ftp, AllowErrorFunction<FTPClient, R> f) {
         try {
-            ftp.connect(config.getHost(), config.getPort());
-            ftp.login(config.getUsername(), config.getPassword());
-            //如果支持本地就使用 utf-8
-            if (FTPReply.isPositiveCompletion(ftp.sendCommand(
-                    "OPTS UTF8", "ON"))) {
-                config.setLocalCharset("UTF-8");
-            }
-            //客户端被动模式
-            ftp.enterLocalPassiveMode();
-            //文件传输形式
-            ftp.setFileType(config.getFileType());
-            //编码格式
-            ftp.setControlEncoding(config.getLocalCharset());
             return f.apply(ftp);
+        } catch (RuntimeException e) {
+            log.error("ftp operation failed: {}", e);
+            throw e;
         } catch (Throwable e) {
             log.error("ftp operation failed: {}", e);
             throw new RuntimeException(e);
-        } finally {
-            if (ftp.isConnected()) {
-                try {
-                    ftp.disconnect();
-                } catch (IOException e) {
-                    log.error("Close ftp client failed: {}", e);
-                }
+        }
+    }
+
+    /**
+     * 获取绑定在指定连接上的会话对象
+     *
+     * @param ftp 连接
+     * @return 会话对象，所有操作都将使用这个连接
+     */
+    private BasicFtpOperator bind(FTPClient ftp) {
+        return ftp == bound ? this : new BasicFtpOperator(config, pool, knownDirs, limiter, ftp);
+    }
+
+    @Override
+    public int getBulkParallelism() {
+        return config.getBulkParallelism();
+    }
+
+    @Override
+    public <R> R session(Function<FtpOperator, R> action) {
+        if (bound != null) {
+            return action.apply(this);
+        }
+        return using(ftp -> action.apply(bind(ftp)));
+    }
+
+    /**
+     * 将连接归还到连接池
+     *
+     * @param ftp    ftp 连接
+     * @param broken 连接是否已经不可用
+     */
+    private void release(FTPClient ftp, boolean broken) {
+        try {
+            if (broken) {
+                pool.invalidateObject(ftp);
+            } else {
+                pool.returnObject(ftp);
             }
+        } catch (Exception e) {
+            log.error("Release ftp client failed: {}", e);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * 使用配置的缓冲区大小读取本地文件
+     */
     @Override
-    public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir) {
-        if (isCreateDir) {
-            mkdirR(getParentDir(remoteFilePath));
+    public boolean put(File localFile, String remoteFilePath, boolean isCreateDir) {
+        try {
+            return put(FileChannelUtil.newInputStream(localFile, config.getBufferSize()), remoteFilePath, isCreateDir);
+        } catch (FileNotFoundException e) {
+            log.error("Put file failed: {}", e);
+            return false;
         }
+    }
+
+    @Override
+    public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir) {
         return using(ftp -> {
             try {
+                if (isCreateDir) {
+                    bind(ftp).mkdirR(getParentDir(remoteFilePath));
+                }
                 cd(ftp, getParentDir(remoteFilePath));
-                return ftp.storeFile(encodingPath(getFileName(remoteFilePath)), localIs);
+                final boolean modeZ = enterModeZ(ftp);
+                try (InputStream is = limiter.wrap(modeZ ? Compression.DEFLATE.compress(localIs) : localIs)) {
+                    final boolean result = ftp.storeFile(encodingPath(getFileName(remoteFilePath)), is);
+                    if (!result && isCreateDir) {
+                        //父目录可能已被其他客户端删除，下次上传时重新检查
+                        knownDirs.invalidate(getParentDir(remoteFilePath));
+                    }
+                    return result;
+                } finally {
+                    exitModeZ(ftp, modeZ);
+                }
             } catch (IOException e) {
                 log.error("Put file failed: {}", e);
                 return false;
@@ -84,6 +227,46 @@ public class BasicFtpOperator implements FtpOperator {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * 使用 {@link FTPClient#setCopyStreamListener} 记录进度。
+     * MODE Z 时复制的是压缩之后的数据，与总字节数不一致，所以由父接口的默认实现在压缩之前记录
+     */
+    @Override
+    public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir, ProgressTracker tracker) {
+        if (config.getModeZ()) {
+            return FtpOperator.super.put(localIs, remoteFilePath, isCreateDir, tracker);
+        }
+        boolean result = false;
+        try {
+            result = using(ftp -> withCopyStreamListener(ftp, tracker, () -> bind(ftp).put(localIs, remoteFilePath, isCreateDir)));
+            return result;
+        } finally {
+            tracker.finish(result);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 使用 APPE 命令追加
+     */
+    @Override
+    public boolean append(InputStream localIs, String remoteFilePath) {
+        return using(ftp -> {
+            try {
+                cd(ftp, getParentDir(remoteFilePath));
+                return ftp.appendFile(encodingPath(getFileName(remoteFilePath)), limiter.wrap(localIs));
+            } catch (IOException e) {
+                log.error("Append file failed: {}", e);
+                return false;
+            } finally {
+                if (localIs != null) {
+                    localIs.close();
+                }
+            }
+        });
+    }
+
     @Override
     public boolean get(String remoteFilePath, File localFile, boolean isCreateFile) {
         if (isCreateFile) {
@@ -91,10 +274,25 @@ public class BasicFtpOperator implements FtpOperator {
             log.info("Create file parent dirs successful: {}", mkdirs);
         }
         return using(ftp -> {
-            try (final OutputStream os = new FileOutputStream(localFile)) {
+            if (config.getModeZ()) {
+                //MODE Z 需要在读取时解压，所以使用流的方式下载
+                return bind(ftp).get(remoteFilePath, is -> {
+                    if (is == null) {
+                        return false;
+                    }
+                    try (final OutputStream os = FileChannelUtil.newOutputStream(localFile, false, config.getBufferSize())) {
+                        IOUtils.copyLarge(is, os, new byte[config.getBufferSize()]);
+                        return true;
+                    } catch (IOException e) {
+                        log.error("Get file failed: {}", e);
+                        return false;
+                    }
+                });
+            }
+            try (final OutputStream os = FileChannelUtil.newOutputStream(localFile, false, config.getBufferSize())) {
                 ftp.enterLocalPassiveMode();
                 cd(ftp, getParentDir(remoteFilePath));
-                return ftp.retrieveFile(encodingPath(getFileName(remoteFilePath)), os);
+                return ftp.retrieveFile(encodingPath(getFileName(remoteFilePath)), limiter.wrap(os));
             } catch (IOException e) {
                 log.error("Get file failed: {}", e);
                 return false;
@@ -102,23 +300,101 @@ public class BasicFtpOperator implements FtpOperator {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * 下载之前使用 SIZE 命令获取总字节数，再使用 {@link FTPClient#setCopyStreamListener} 记录进度，
+     * MODE Z 时使用流的方式下载，所以由父接口的默认实现记录
+     */
+    @Override
+    public boolean get(String remoteFilePath, File localFile, boolean isCreateFile, ProgressTracker tracker) {
+        boolean result = false;
+        try {
+            result = using(ftp -> {
+                tracker.setTotalBytes(size(ftp, remoteFilePath));
+                return bind(ftp).getWithProgress(remoteFilePath, localFile, isCreateFile, tracker);
+            });
+            return result;
+        } finally {
+            tracker.finish(result);
+        }
+    }
+
+    /**
+     * 在绑定的连接上下载文件并记录进度
+     */
+    private boolean getWithProgress(String remoteFilePath, File localFile, boolean isCreateFile, ProgressTracker tracker) {
+        if (config.getModeZ()) {
+            return FtpOperator.super.get(remoteFilePath, localFile, isCreateFile, tracker);
+        }
+        return withCopyStreamListener(bound, tracker, () -> get(remoteFilePath, localFile, isCreateFile));
+    }
+
     @Override
     public <R> R get(String remoteFilePath, Function<InputStream, R> action) {
+        return get(remoteFilePath, 0L, action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 使用 REST 命令让服务器从偏移量处开始传输，从头开始传输时可以使用 MODE Z。
+     * 没有读取到末尾（例如分段下载）时发送 ABOR 结束传输，
+     * 如果无法确认服务器已经结束这次传输则抛出异常，让连接被销毁而不是带着未读取的回复归还到连接池
+     */
+    @Override
+    public <R> R get(String remoteFilePath, long offset, Function<InputStream, R> action) {
         return using(ftp -> {
             cd(ftp, getParentDir(remoteFilePath));
             ftp.enterLocalPassiveMode();
-            try (InputStream is = ftp.retrieveFileStream(encodingPath(getFileName(remoteFilePath)))) {
-                return action.apply(is);
-            } catch (IOException e) {
-                log.error("Get file failed: {}", e);
-                return null;
+            ftp.setRestartOffset(offset);
+            final boolean modeZ = offset == 0 && enterModeZ(ftp);
+            final InputStream raw = limiter.wrap(ftp.retrieveFileStream(encodingPath(getFileName(remoteFilePath))));
+            final EofAwareInputStream is = raw == null ? null : new EofAwareInputStream(modeZ ? Compression.DEFLATE.decompress(raw) : raw);
+            final R result;
+            boolean completed = true;
+            try {
+                result = action.apply(is);
+            } finally {
+                //连接需要归还到连接池，所以必须要完成这次传输
+                if (is != null) {
+                    completed = completeRetrieve(ftp, is);
+                }
+                exitModeZ(ftp, modeZ);
             }
+            if (!completed) {
+                throw new RuntimeException("Retrieve " + remoteFilePath + " did not complete: " + ftp.getReplyString());
+            }
+            return result;
         });
     }
 
+    /**
+     * 关闭数据连接并读取这次传输的回复
+     * 没有读取到末尾时，服务器对 RETR 回复 426（已经传输完成时是 226），再对 ABOR 回复 226，
+     * 所以先由 {@link FTPClient#abort()} 读取前一个回复，再由 {@link FTPClient#completePendingCommand()} 读取后一个
+     *
+     * @param ftp ftp 连接
+     * @param is  数据流
+     * @return 控制连接是否处于确定的状态
+     */
+    private boolean completeRetrieve(FTPClient ftp, EofAwareInputStream is) {
+        try {
+            is.close();
+            if (!is.isEof()) {
+                ftp.abort();
+            }
+            return ftp.completePendingCommand();
+        } catch (IOException e) {
+            log.error("Complete retrieve failed: {}", e);
+            return false;
+        }
+    }
+
     @Override
     public boolean mkdir(String path) {
-        return exist(path) || using(ftp -> {
+        return using(ftp -> {
+            if (bind(ftp).exist(path)) {
+                return true;
+            }
             if (!cd(ftp, getParentDir(path))) {
                 return false;
             }
@@ -126,6 +402,15 @@ public class BasicFtpOperator implements FtpOperator {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * 跳过已知存在的目录，只检查/创建缺失的部分
+     */
+    @Override
+    public boolean mkdirR(String path) {
+        return session(ftp -> knownDirs.mkdirR(ftp, path));
+    }
+
     @Override
     public boolean rm(String path) {
         return using(ftp -> {
@@ -138,41 +423,278 @@ public class BasicFtpOperator implements FtpOperator {
 
     @Override
     public boolean rmdir(String path) {
+        knownDirs.invalidate(path);
         return using(ftp -> ftp.removeDirectory(encodingPath(path)));
     }
 
     @Override
     public List<Stat> ls(String path) {
         return using(ftp -> {
-            cd(ftp, path);
-            return Arrays.stream(ftp.listFiles())
-                    .map(ftpFile -> new Stat(
-                            ftpFile.getName(),
-                            PathUtil.join(path, ftpFile.getName()),
-                            ftpFile.isDirectory(),
-                            ftpFile.getSize()
-                    ))
+            FTPFile[] ftpFiles = null;
+            //服务器支持时使用机器可读的 MLSD，失败时回退到 LIST
+            if (isMlstSupported(ftp)) {
+                ftpFiles = ftp.mlistDir(encodingPath(path));
+                if (!FTPReply.isPositiveCompletion(ftp.getReplyCode())) {
+                    log.info("Ftp MLSD failed, fallback to LIST: {}", ftp.getReplyString());
+                    ftpFiles = null;
+                }
+            }
+            if (ftpFiles == null) {
+                cd(ftp, path);
+                ftpFiles = ftp.listFiles();
+            }
+            return Arrays.stream(ftpFiles)
+                    .filter(ftpFile -> ftpFile != null && !isSelfOrParent(ftpFile))
+                    .map(ftpFile -> toStat(path, ftpFile.getName(), ftpFile))
                     .filter(stat -> !stat.getName().equals(PathUtil.CURRENT_DIR) && !stat.getName().equals(PathUtil.PARENT_DIR))
                     .collect(Collectors.toList());
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * 服务器支持 MLST 时只使用控制连接获取
+     */
+    @Override
+    public Stat stat(String path) {
+        return using(ftp -> {
+            if (!isMlstSupported(ftp)) {
+                return bind(ftp).ls(getParentDir(path)).stream()
+                        .filter(stat -> path.equals(stat.getPath()))
+                        .findFirst()
+                        .orElse(null);
+            }
+            final FTPFile ftpFile = ftp.mlistFile(encodingPath(path));
+            return ftpFile == null ? null : toStat(getParentDir(path), getFileName(path), ftpFile);
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * 优先使用 HASH 命令，服务器没有在 FEAT 中声明支持该算法时再尝试 XCRC/XMD5
+     */
+    @Override
+    public String checksum(String remoteFilePath, ChecksumAlgorithm algorithm) {
+        return using(ftp -> {
+            final String path = encodingPath(remoteFilePath);
+            if (isHashSupported(ftp, algorithm)) {
+                return FTPReply.isPositiveCompletion(ftp.sendCommand(OPTS, HASH_FEATURE + " " + algorithm.getHashName()))
+                        && FTPReply.isPositiveCompletion(ftp.sendCommand(HASH_FEATURE, path))
+                        ? parseChecksum(ftp.getReplyString(), algorithm) : null;
+            }
+            final String command = algorithm.getLegacyCommand();
+            if (command != null && ftp.hasFeature(command)
+                    && FTPReply.isPositiveCompletion(ftp.sendCommand(command, path))) {
+                return parseChecksum(ftp.getReplyString(), algorithm);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * 只使用控制连接判断，不会打开数据连接：
+     * 服务器支持 MLST 时一条命令即可完成判断，否则依次尝试 CWD（目录），SIZE 以及 MDTM（文件）
+     */
     @Override
     public boolean exist(String path) {
         return using(ftp -> {
+            if (isMlstSupported(ftp)) {
+                return ftp.mlistFile(encodingPath(path)) != null;
+            }
             //首先判断是否是目录
             if (cd(ftp, path)) {
                 return true;
             }
-            //判断是否是文件
-            if (!cd(ftp, getParentDir(path))) {
-                return false;
+            //判断是否是文件，部分服务器在 ASCII 模式下拒绝 SIZE，所以还需要使用 MDTM 判断
+            if (FTPReply.isPositiveCompletion(ftp.sendCommand("SIZE", encodingPath(path)))) {
+                return true;
             }
-            ftp.enterLocalPassiveMode();
-            try (final InputStream is = ftp.retrieveFileStream(encodingPath(getFileName(path)))) {
-                return is != null || ftp.getReplyCode() == 250;
+            return ftp.getModificationTime(encodingPath(path)) != null;
+        });
+    }
+
+    /**
+     * 使用 SIZE 命令获取文件大小，不会打开数据连接
+     *
+     * @param ftp  ftp 连接
+     * @param path 文件路径
+     * @return 文件大小，服务器不支持或者拒绝时为 {@link TransferProgress#UNKNOWN_SIZE}
+     */
+    private long size(FTPClient ftp, String path) throws IOException {
+        if (!FTPReply.isPositiveCompletion(ftp.sendCommand("SIZE", encodingPath(path)))) {
+            return TransferProgress.UNKNOWN_SIZE;
+        }
+        try {
+            return Long.parseLong(StringUtils.substringAfter(ftp.getReplyString().trim(), " ").trim());
+        } catch (NumberFormatException e) {
+            log.error("Parse SIZE reply failed: {}", e);
+            return TransferProgress.UNKNOWN_SIZE;
+        }
+    }
+
+    /**
+     * 关闭连接池，之后这个对象将不再可用
+     */
+    @Override
+    public void close() {
+        //会话对象不持有连接池
+        if (bound == null) {
+            pool.close();
+        }
+    }
+
+    /**
+     * 服务器是否支持 MLST/MLSD
+     * FEAT 的结果由 {@link FTPClient} 缓存，所以每个连接只会在创建时发送一次 FEAT
+     *
+     * @param ftp ftp 连接
+     * @return 是否支持
+     */
+    private boolean isMlstSupported(FTPClient ftp) throws IOException {
+        return ftp.hasFeature(MLST_FEATURE);
+    }
+
+    /**
+     * 在连接上设置进度回调之后执行操作，完成后移除
+     * {@link FTPClient} 在每次复制缓冲区之后回调，流的大小总是未知的
+     *
+     * @param ftp     ftp 连接
+     * @param tracker 进度跟踪
+     * @param action  传输操作
+     * @return 是否传输成功
+     */
+    private boolean withCopyStreamListener(FTPClient ftp, ProgressTracker tracker, Supplier<Boolean> action) {
+        ftp.setCopyStreamListener(new CopyStreamListener() {
+            @Override
+            public void bytesTransferred(CopyStreamEvent event) {
+                tracker.add(event.getBytesTransferred());
+            }
+
+            @Override
+            public void bytesTransferred(long totalBytesTransferred, int bytesTransferred, long streamSize) {
+                tracker.add(bytesTransferred);
             }
         });
+        try {
+            return action.get();
+        } finally {
+            ftp.setCopyStreamListener(null);
+        }
+    }
+
+    /**
+     * 服务器的 HASH 命令是否支持指定的算法
+     * FEAT 中的格式为 {@code HASH SHA-1;SHA-256*;MD5}，带 * 的是当前选择的算法
+     *
+     * @param ftp       ftp 连接
+     * @param algorithm 校验算法
+     * @return 是否支持
+     */
+    private boolean isHashSupported(FTPClient ftp, ChecksumAlgorithm algorithm) throws IOException {
+        if (algorithm.getHashName() == null || !ftp.hasFeature(HASH_FEATURE)) {
+            return false;
+        }
+        final String[] values = ftp.featureValues(HASH_FEATURE);
+        return values != null && Arrays.stream(values)
+                .flatMap(value -> Arrays.stream(value.split(";")))
+                .map(name -> StringUtils.removeEnd(name.trim(), "*"))
+                .anyMatch(algorithm.getHashName()::equalsIgnoreCase);
+    }
+
+    /**
+     * 从 HASH/XCRC/XMD5 的响应中取出摘要
+     * HASH 的响应为 {@code 213 SHA-256 0-49 <摘要> <文件>}，旧式命令一般为 {@code 250 <摘要>}，
+     * 所以跳过响应码之后取第一个长度符合的十六进制字符串。CRC 的结果可能省略了开头的 0，需要补齐
+     *
+     * @param reply     响应
+     * @param algorithm 校验算法
+     * @return 小写的十六进制摘要，没有找到时为 null
+     */
+    private static String parseChecksum(String reply, ChecksumAlgorithm algorithm) {
+        final int length = algorithm.newDigest().getDigestLength() * 2;
+        final String[] tokens = StringUtils.split(StringUtils.substring(reply.trim(), 4));
+        for (String token : tokens) {
+            final boolean isHex = token.matches("[0-9a-fA-F]+");
+            if (isHex && token.length() == length) {
+                return token.toLowerCase();
+            }
+            if (isHex && token.length() < length && length == 8) {
+                return StringUtils.leftPad(token.toLowerCase(), length, '0');
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 如果开启了 MODE Z 并且服务器支持，则切换到 MODE Z
+     * MODE Z 的数据连接上传输的是 zlib 格式的压缩数据，由客户端自行压缩/解压
+     *
+     * @param ftp ftp 连接
+     * @return 是否切换成功
+     */
+    private boolean enterModeZ(FTPClient ftp) throws IOException {
+        return config.getModeZ()
+                && ftp.hasFeature(MODE_FEATURE, MODE_Z)
+                && FTPReply.isPositiveCompletion(ftp.sendCommand(MODE_FEATURE, MODE_Z));
+    }
+
+    /**
+     * 恢复为默认的 MODE S，连接归还到连接池之后可能被不使用压缩的操作借出
+     *
+     * @param ftp   ftp 连接
+     * @param modeZ 是否切换到了 MODE Z
+     */
+    private void exitModeZ(FTPClient ftp, boolean modeZ) throws IOException {
+        if (modeZ) {
+            ftp.sendCommand(MODE_FEATURE, MODE_S);
+        }
+    }
+
+    /**
+     * 判断 MLSD 返回的是否是当前目录或上级目录
+     *
+     * @param ftpFile 文件信息
+     * @return 是否是当前目录或上级目录
+     */
+    private boolean isSelfOrParent(FTPFile ftpFile) {
+        final String rawListing = StringUtils.lowerCase(ftpFile.getRawListing());
+        return StringUtils.contains(rawListing, "type=cdir;") || StringUtils.contains(rawListing, "type=pdir;");
+    }
+
+    /**
+     * 将 ftp 的文件信息转换为统一的文件信息
+     *
+     * @param parent  父目录的路径
+     * @param name    文件名
+     * @param ftpFile ftp 的文件信息
+     * @return 文件信息
+     */
+    private Stat toStat(String parent, String name, FTPFile ftpFile) {
+        return Stat.child(
+                parent,
+                name,
+                ftpFile.isDirectory(),
+                ftpFile.getSize(),
+                ftpFile.getTimestamp() == null ? null : ftpFile.getTimestamp().getTimeInMillis(),
+                permissions(ftpFile)
+        );
+    }
+
+    /**
+     * 将文件权限转换为 rwxr-xr-x 的格式
+     *
+     * @param ftpFile 文件信息
+     * @return 权限字符串
+     */
+    private String permissions(FTPFile ftpFile) {
+        final StringBuilder sb = new StringBuilder(9);
+        for (int access : new int[]{FTPFile.USER_ACCESS, FTPFile.GROUP_ACCESS, FTPFile.WORLD_ACCESS}) {
+            sb.append(ftpFile.hasPermission(access, FTPFile.READ_PERMISSION) ? 'r' : '-');
+            sb.append(ftpFile.hasPermission(access, FTPFile.WRITE_PERMISSION) ? 'w' : '-');
+            sb.append(ftpFile.hasPermission(access, FTPFile.EXECUTE_PERMISSION) ? 'x' : '-');
+        }
+        return sb.toString();
     }
 
     /**
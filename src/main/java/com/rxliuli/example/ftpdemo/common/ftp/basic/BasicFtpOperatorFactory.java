@@ -1,6 +1,8 @@
 package com.rxliuli.example.ftpdemo.common.ftp.basic;
 
 import com.rxliuli.example.ftpdemo.common.ftp.BaseFtpOperatorFactory;
+import org.apache.commons.net.ftp.FTPClient;
+import org.apache.commons.pool2.impl.GenericObjectPool;
 
 /**
  * @author rxliuli
@@ -14,6 +16,10 @@ public class BasicFtpOperatorFactory implements BaseFtpOperatorFactory {
 
     @Override
     public BasicFtpOperator createOperator() {
-        return new BasicFtpOperator(config);
+        final GenericObjectPool<FTPClient> pool = new GenericObjectPool<>(
+                new BasicFtpClientFactory(config),
+                config.getPoolConfig().toObjectPoolConfig()
+        );
+        return new BasicFtpOperator(config, pool);
     }
 }
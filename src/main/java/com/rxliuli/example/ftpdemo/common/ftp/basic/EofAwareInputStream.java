@@ -0,0 +1,30 @@
+package com.rxliuli.example.ftpdemo.common.ftp.basic;
+
+import org.apache.commons.io.input.ProxyInputStream;
+
+import java.io.InputStream;
+
+/**
+ * 记录是否已经读取到末尾的流
+ * 数据连接没有读取到末尾就关闭时，需要发送 ABOR 让服务器结束这次传输
+ *
+ * @author rxliuli
+ */
+class EofAwareInputStream extends ProxyInputStream {
+    private boolean eof;
+
+    EofAwareInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    protected void afterRead(int n) {
+        if (n == -1) {
+            eof = true;
+        }
+    }
+
+    boolean isEof() {
+        return eof;
+    }
+}
@@ -0,0 +1,261 @@
+package com.rxliuli.example.ftpdemo.common.ftp.cache;
+
+import com.rxliuli.example.ftpdemo.common.ftp.ChecksumAlgorithm;
+import com.rxliuli.example.ftpdemo.common.ftp.FtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.ftp.progress.ProgressTracker;
+import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.getParentDir;
+
+/**
+ * 缓存目录列表的 ftp 操作对象
+ * 包装任意的 {@link FtpOperator}，{@link #ls(String)} 与 {@link #exist(String)} 的结果将被缓存一段时间，
+ * 通过这个对象进行的写操作会使受影响的路径及其父目录的缓存失效
+ * 注意：其他客户端对服务器的修改只有在缓存过期后才能看到
+ *
+ * @author rxliuli
+ */
+public class CachingFtpOperator implements FtpOperator {
+    private final FtpOperator delegate;
+    /**
+     * 目录列表的缓存，k 是目录路径
+     */
+    private final ExpiringLruCache<String, List<Stat>> lsCache;
+    /**
+     * 文件/目录是否存在的缓存，k 是路径
+     */
+    private final ExpiringLruCache<String, Boolean> existCache;
+
+    /**
+     * 创建一个缓存目录列表的 ftp 操作对象
+     *
+     * @param delegate 被包装的 ftp 操作对象
+     * @param ttl      缓存的有效时间
+     * @param unit     有效时间的单位
+     * @param maxSize  每种缓存最多保存的条目数量，超过时淘汰最近最少使用的条目
+     */
+    public CachingFtpOperator(FtpOperator delegate, long ttl, TimeUnit unit, int maxSize) {
+        this(delegate, new ExpiringLruCache<>(ttl, unit, maxSize), new ExpiringLruCache<>(ttl, unit, maxSize));
+    }
+
+    private CachingFtpOperator(FtpOperator delegate, ExpiringLruCache<String, List<Stat>> lsCache, ExpiringLruCache<String, Boolean> existCache) {
+        this.delegate = delegate;
+        this.lsCache = lsCache;
+        this.existCache = existCache;
+    }
+
+    @Override
+    public <R> R session(Function<FtpOperator, R> action) {
+        //会话对象与当前对象共享缓存
+        return delegate.session(ftp -> action.apply(new CachingFtpOperator(ftp, lsCache, existCache)));
+    }
+
+    @Override
+    public int getBulkParallelism() {
+        return delegate.getBulkParallelism();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 返回的列表不可修改，{@link Stat} 是可变的，所以缓存中保存的是副本，每次命中也返回新的副本。
+     * 读取期间路径被写操作失效时，读取到的结果不会写入缓存
+     */
+    @Override
+    public List<Stat> ls(String path) {
+        final List<Stat> cached = lsCache.get(path);
+        if (cached != null) {
+            return copy(cached);
+        }
+        final long version = lsCache.version(path);
+        final List<Stat> ls = delegate.ls(path);
+        lsCache.putIfCurrent(path, copy(ls), version);
+        return Collections.unmodifiableList(ls);
+    }
+
+    private static List<Stat> copy(List<Stat> list) {
+        final List<Stat> result = new ArrayList<>(list.size());
+        for (Stat stat : list) {
+            result.add(new Stat(stat));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    @Override
+    public boolean exist(String path) {
+        final Boolean cached = existCache.get(path);
+        if (cached != null) {
+            return cached;
+        }
+        final long version = existCache.version(path);
+        final boolean exist = delegate.exist(path);
+        existCache.putIfCurrent(path, exist, version);
+        return exist;
+    }
+
+    @Override
+    public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir) {
+        try {
+            return delegate.put(localIs, remoteFilePath, isCreateDir);
+        } finally {
+            if (isCreateDir) {
+                invalidateAncestors(remoteFilePath);
+            } else {
+                invalidate(remoteFilePath);
+            }
+        }
+    }
+
+    @Override
+    public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir, ProgressTracker tracker) {
+        try {
+            return delegate.put(localIs, remoteFilePath, isCreateDir, tracker);
+        } finally {
+            if (isCreateDir) {
+                invalidateAncestors(remoteFilePath);
+            } else {
+                invalidate(remoteFilePath);
+            }
+        }
+    }
+
+    @Override
+    public boolean append(InputStream localIs, String remoteFilePath) {
+        try {
+            return delegate.append(localIs, remoteFilePath);
+        } finally {
+            invalidate(remoteFilePath);
+        }
+    }
+
+    @Override
+    public boolean get(String remoteFilePath, File localFile, boolean isCreateFile) {
+        return delegate.get(remoteFilePath, localFile, isCreateFile);
+    }
+
+    @Override
+    public boolean get(String remoteFilePath, File localFile, boolean isCreateFile, ProgressTracker tracker) {
+        return delegate.get(remoteFilePath, localFile, isCreateFile, tracker);
+    }
+
+    @Override
+    public <R> R get(String remoteFilePath, Function<InputStream, R> action) {
+        return delegate.get(remoteFilePath, action);
+    }
+
+    @Override
+    public <R> R get(String remoteFilePath, long offset, Function<InputStream, R> action) {
+        return delegate.get(remoteFilePath, offset, action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 文件信息不会被缓存，保证分段下载等操作拿到的是最新的大小
+     */
+    @Override
+    public Stat stat(String path) {
+        return delegate.stat(path);
+    }
+
+    @Override
+    public String checksum(String remoteFilePath, ChecksumAlgorithm algorithm) {
+        return delegate.checksum(remoteFilePath, algorithm);
+    }
+
+    @Override
+    public boolean mkdir(String path) {
+        try {
+            return delegate.mkdir(path);
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    @Override
+    public boolean rm(String path) {
+        try {
+            return delegate.rm(path);
+        } finally {
+            invalidate(path);
+        }
+    }
+
+    @Override
+    public boolean rmdir(String path) {
+        try {
+            return delegate.rmdir(path);
+        } finally {
+            invalidate(path);
+            lsCache.invalidate(path);
+        }
+    }
+
+    @Override
+    public boolean rmdirR(String path) {
+        try {
+            return FtpOperator.super.rmdirR(path);
+        } finally {
+            final String prefix = path.endsWith(PathUtil.SEPARATOR) ? path : path + PathUtil.SEPARATOR;
+            lsCache.invalidateIf(key -> key.equals(path) || key.startsWith(prefix));
+            existCache.invalidateIf(key -> key.equals(path) || key.startsWith(prefix));
+            invalidate(path);
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * 使指定路径以及其父目录列表的缓存失效
+     *
+     * @param path 路径
+     */
+    private void invalidate(String path) {
+        existCache.invalidate(path);
+        lsCache.invalidate(getParentDir(path));
+    }
+
+    /**
+     * 使指定路径以及其所有祖先目录的缓存失效，用于可能创建了父目录的上传
+     *
+     * @param path 路径
+     */
+    private void invalidateAncestors(String path) {
+        String temp = path;
+        while (temp.contains(PathUtil.SEPARATOR) && !PathUtil.SEPARATOR.equals(temp)) {
+            invalidate(temp);
+            temp = getParentDir(temp);
+        }
+    }
+
+    /**
+     * @return 缓存命中次数
+     */
+    public long getHitCount() {
+        return lsCache.getHitCount() + existCache.getHitCount();
+    }
+
+    /**
+     * @return 缓存未命中次数，包括已经过期的条目
+     */
+    public long getMissCount() {
+        return lsCache.getMissCount() + existCache.getMissCount();
+    }
+
+    /**
+     * @return 因为超出最大数量而被淘汰的条目数量
+     */
+    public long getEvictionCount() {
+        return lsCache.getEvictionCount() + existCache.getEvictionCount();
+    }
+}
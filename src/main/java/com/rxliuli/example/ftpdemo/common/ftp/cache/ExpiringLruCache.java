@@ -0,0 +1,146 @@
+package com.rxliuli.example.ftpdemo.common.ftp.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+/**
+ * 带有过期时间的 LRU 缓存
+ * 超过最大数量时淘汰最近最少使用的条目，条目在写入 {@link #ttlNanos} 纳秒之后过期。
+ * 每个键都有一个版本号（按照哈希值分段保存，不会随着键的数量增长），失效时递增，
+ * 读取之前获取版本号，写入时版本号发生了变化说明读取期间发生了修改，读取到的值不再写入缓存
+ *
+ * @param <K> 键的类型
+ * @param <V> 值的类型
+ * @author rxliuli
+ */
+class ExpiringLruCache<K, V> {
+    private static final int VERSION_STRIPES = 64;
+
+    private final long ttlNanos;
+    private final int maxSize;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    ExpiringLruCache(long ttl, TimeUnit unit, int maxSize) {
+        this.ttlNanos = unit.toNanos(ttl);
+        this.maxSize = maxSize;
+        this.map = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > ExpiringLruCache.this.maxSize) {
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 获取缓存的值
+     *
+     * @param key 键
+     * @return 缓存的值，不存在或已经过期时为 null
+     */
+    synchronized V get(K key) {
+        final Entry<V> entry = map.get(key);
+        if (entry == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        if (System.nanoTime() - entry.createdAt > ttlNanos) {
+            map.remove(key);
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return entry.value;
+    }
+
+    synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.nanoTime()));
+    }
+
+    /**
+     * 获取键当前的版本号，在读取需要缓存的值之前调用
+     *
+     * @param key 键
+     * @return 版本号
+     */
+    long version(K key) {
+        return versions.get(stripe(key));
+    }
+
+    /**
+     * 只有在版本号没有变化时才写入缓存
+     *
+     * @param key     键
+     * @param value   值
+     * @param version 读取值之前通过 {@link #version(Object)} 获取的版本号
+     * @return 是否写入
+     */
+    synchronized boolean putIfCurrent(K key, V value, long version) {
+        if (versions.get(stripe(key)) != version) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    synchronized void invalidate(K key) {
+        versions.incrementAndGet(stripe(key));
+        map.remove(key);
+    }
+
+    /**
+     * 删除所有符合条件的键
+     *
+     * @param predicate 条件
+     */
+    synchronized void invalidateIf(Predicate<K> predicate) {
+        //正在读取的键还不在缓存中，无法判断是否符合条件，所以递增所有的版本号
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        final Iterator<K> iterator = map.keySet().iterator();
+        while (iterator.hasNext()) {
+            if (predicate.test(iterator.next())) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private int stripe(K key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % VERSION_STRIPES;
+    }
+
+    long getHitCount() {
+        return hitCount.get();
+    }
+
+    long getMissCount() {
+        return missCount.get();
+    }
+
+    long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long createdAt;
+
+        private Entry(V value, long createdAt) {
+            this.value = value;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.rxliuli.example.ftpdemo.common.ftp.progress;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 读取时记录进度的输入流
+ * 用于无法使用客户端自身进度回调的情况，例如流式的下载
+ *
+ * @author rxliuli
+ */
+public class ProgressInputStream extends FilterInputStream {
+    private final ProgressTracker tracker;
+
+    public ProgressInputStream(InputStream in, ProgressTracker tracker) {
+        super(in);
+        this.tracker = tracker;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b >= 0) {
+            tracker.add(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            tracker.add(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        final long skipped = super.skip(n);
+        if (skipped > 0) {
+            tracker.add(skipped);
+        }
+        return skipped;
+    }
+}
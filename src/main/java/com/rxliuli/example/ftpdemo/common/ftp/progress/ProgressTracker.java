@@ -0,0 +1,100 @@
+package com.rxliuli.example.ftpdemo.common.ftp.progress;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单次传输的进度跟踪
+ * 由传输线程在每次读写之后调用 {@link #add(long)}，热路径上只有一次加法和一次 {@link System#nanoTime()}，
+ * 距离上次通知超过间隔时才会创建快照并回调监听器，所以通知的开销与传输的字节数无关。
+ * 如果超过通知间隔没有收到回调，说明这段时间内没有任何数据传输
+ * 不是线程安全的，一个对象只能用于一次传输
+ *
+ * @author rxliuli
+ */
+public class ProgressTracker {
+    public static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressTracker.class);
+
+    private final String path;
+    private final TransferListener listener;
+    private final long intervalNanos;
+    private final long startNanos = System.nanoTime();
+
+    private long totalBytes;
+    private long transferredBytes;
+    private long lastNotifyNanos = startNanos;
+    private long lastNotifyBytes;
+    private boolean done;
+
+    /**
+     * @param path           远程文件路径
+     * @param totalBytes     总字节数，未知时为 {@link TransferProgress#UNKNOWN_SIZE}
+     * @param listener       监听器
+     * @param intervalMillis 传输过程中两次通知的最小间隔（毫秒）
+     */
+    public ProgressTracker(String path, long totalBytes, TransferListener listener, long intervalMillis) {
+        this.path = path;
+        this.totalBytes = totalBytes;
+        this.listener = listener;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+    }
+
+    public ProgressTracker(String path, long totalBytes, TransferListener listener) {
+        this(path, totalBytes, listener, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * 设置总字节数，用于开始传输之后才知道大小的情况，已知时不会覆盖
+     *
+     * @param totalBytes 总字节数
+     */
+    public void setTotalBytes(long totalBytes) {
+        if (this.totalBytes == TransferProgress.UNKNOWN_SIZE && totalBytes >= 0) {
+            this.totalBytes = totalBytes;
+        }
+    }
+
+    /**
+     * 记录新传输的字节
+     *
+     * @param bytes 字节数
+     */
+    public void add(long bytes) {
+        transferredBytes += bytes;
+        final long now = System.nanoTime();
+        if (now - lastNotifyNanos >= intervalNanos) {
+            notify(now, false, false);
+        }
+    }
+
+    /**
+     * 传输结束，无论成功与否都会通知一次，重复调用将被忽略
+     *
+     * @param success 是否成功
+     * @return 传入的 {@param success}，方便直接作为返回值
+     */
+    public boolean finish(boolean success) {
+        if (!done) {
+            done = true;
+            notify(System.nanoTime(), true, success);
+        }
+        return success;
+    }
+
+    private void notify(long now, boolean done, boolean success) {
+        final long elapsed = now - lastNotifyNanos;
+        final double instant = elapsed <= 0 ? 0 : (transferredBytes - lastNotifyBytes) * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+        lastNotifyNanos = now;
+        lastNotifyBytes = transferredBytes;
+        try {
+            listener.onProgress(new TransferProgress(path, totalBytes, transferredBytes, now - startNanos, instant, done, success));
+        } catch (RuntimeException e) {
+            //监听器的异常不应该中断传输
+            log.error("Transfer listener failed: {}", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.rxliuli.example.ftpdemo.common.ftp.progress;
+
+/**
+ * 传输进度的监听器
+ * 在传输线程中回调，传输过程中最多每个通知间隔回调一次，结束时一定会回调一次。
+ * 回调应当尽快返回，耗时的处理请提交到其它线程
+ *
+ * @author rxliuli
+ */
+@FunctionalInterface
+public interface TransferListener {
+    /**
+     * 传输进度发生变化
+     *
+     * @param progress 当前进度的快照
+     */
+    void onProgress(TransferProgress progress);
+}
@@ -0,0 +1,114 @@
+package com.rxliuli.example.ftpdemo.common.ftp.progress;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 传输进度的快照
+ *
+ * @author rxliuli
+ */
+public class TransferProgress {
+    /**
+     * 表示总字节数未知
+     */
+    public static final long UNKNOWN_SIZE = -1;
+
+    /**
+     * 远程文件路径
+     */
+    private final String path;
+    /**
+     * 总字节数，未知时为 {@link #UNKNOWN_SIZE}
+     */
+    private final long totalBytes;
+    /**
+     * 已经传输的字节数
+     */
+    private final long transferredBytes;
+    /**
+     * 从开始传输到现在的时间（纳秒）
+     */
+    private final long elapsedNanos;
+    /**
+     * 距离上次通知这段时间内的速率（字节/秒）
+     */
+    private final double instantBytesPerSecond;
+    /**
+     * 是否已经结束
+     */
+    private final boolean done;
+    /**
+     * 是否成功，只在结束之后有意义
+     */
+    private final boolean success;
+
+    TransferProgress(String path, long totalBytes, long transferredBytes, long elapsedNanos, double instantBytesPerSecond, boolean done, boolean success) {
+        this.path = path;
+        this.totalBytes = totalBytes;
+        this.transferredBytes = transferredBytes;
+        this.elapsedNanos = elapsedNanos;
+        this.instantBytesPerSecond = instantBytesPerSecond;
+        this.done = done;
+        this.success = success;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getTransferredBytes() {
+        return transferredBytes;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    public double getInstantBytesPerSecond() {
+        return instantBytesPerSecond;
+    }
+
+    /**
+     * @return 从开始传输到现在的平均速率（字节/秒）
+     */
+    public double getAverageBytesPerSecond() {
+        return elapsedNanos <= 0 ? 0 : transferredBytes * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * @return 按照平均速率估算的剩余时间（毫秒），总字节数未知或者还没有速率时为 -1
+     */
+    public long getEtaMillis() {
+        final double average = getAverageBytesPerSecond();
+        if (totalBytes == UNKNOWN_SIZE || average <= 0) {
+            return -1;
+        }
+        return (long) (Math.max(0, totalBytes - transferredBytes) * 1000 / average);
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    @Override
+    public String toString() {
+        return "TransferProgress{" +
+                "path='" + path + '\'' +
+                ", totalBytes=" + totalBytes +
+                ", transferredBytes=" + transferredBytes +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", instantBytesPerSecond=" + instantBytesPerSecond +
+                ", averageBytesPerSecond=" + getAverageBytesPerSecond() +
+                ", done=" + done +
+                ", success=" + success +
+                '}';
+    }
+}
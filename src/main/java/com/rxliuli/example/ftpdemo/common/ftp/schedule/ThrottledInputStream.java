@@ -0,0 +1,38 @@
+package com.rxliuli.example.ftpdemo.common.ftp.schedule;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 经过调度器限速的输入流
+ * 读取之后再按照实际读取的字节数取得令牌
+ *
+ * @author rxliuli
+ */
+class ThrottledInputStream extends FilterInputStream {
+    private final TransferScheduler.TransferLimiter limiter;
+
+    ThrottledInputStream(InputStream in, TransferScheduler.TransferLimiter limiter) {
+        super(in);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int b = super.read();
+        if (b >= 0) {
+            limiter.acquire(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        final int n = super.read(b, off, limiter.isUnlimited() ? len : Math.min(len, TransferScheduler.CHUNK_SIZE));
+        if (n > 0) {
+            limiter.acquire(n);
+        }
+        return n;
+    }
+}
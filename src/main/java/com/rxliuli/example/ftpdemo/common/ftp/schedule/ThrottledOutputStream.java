@@ -0,0 +1,41 @@
+package com.rxliuli.example.ftpdemo.common.ftp.schedule;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 经过调度器限速的输出流
+ * 写入之前按照字节数取得令牌，大块的写入拆分为多次
+ *
+ * @author rxliuli
+ */
+class ThrottledOutputStream extends FilterOutputStream {
+    private final TransferScheduler.TransferLimiter limiter;
+
+    ThrottledOutputStream(OutputStream out, TransferScheduler.TransferLimiter limiter) {
+        super(out);
+        this.limiter = limiter;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        limiter.acquire(1);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (limiter.isUnlimited()) {
+            out.write(b, off, len);
+            return;
+        }
+        while (len > 0) {
+            final int n = Math.min(len, TransferScheduler.CHUNK_SIZE);
+            limiter.acquire(n);
+            out.write(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+}
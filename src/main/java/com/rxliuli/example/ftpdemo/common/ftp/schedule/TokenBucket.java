@@ -0,0 +1,159 @@
+package com.rxliuli.example.ftpdemo.common.ftp.schedule;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 带优先级的令牌桶
+ * 令牌以字节为单位，按照速率持续补充，最多积攒一秒的量。只要桶中还有令牌就可以取走任意数量，不足的部分记为欠款，
+ * 之后的请求需要等到欠款还清，这样大块的读写不需要拆分也不会超过速率。
+ * 有交互式的请求在等待时，批量的请求不会取得令牌，所以交互式传输总是可以插到批量传输的前面
+ *
+ * @author rxliuli
+ */
+class TokenBucket {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    /**
+     * 当前时间的纳秒数，测试时可以替换
+     */
+    private final LongSupplier ticker;
+
+    /**
+     * 每秒补充的令牌数，小于等于 0 表示不限速
+     */
+    private volatile long bytesPerSecond;
+    private double tokens;
+    private long lastRefill;
+    /**
+     * 正在等待的交互式请求数量
+     */
+    private int interactiveWaiting;
+
+    TokenBucket(long bytesPerSecond) {
+        this(bytesPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long bytesPerSecond, LongSupplier ticker) {
+        this.ticker = ticker;
+        this.bytesPerSecond = bytesPerSecond;
+        this.tokens = Math.max(bytesPerSecond, 0);
+        this.lastRefill = ticker.getAsLong();
+    }
+
+    boolean isUnlimited() {
+        return bytesPerSecond <= 0;
+    }
+
+    long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    void setBytesPerSecond(long bytesPerSecond) {
+        lock.lock();
+        try {
+            refill();
+            this.bytesPerSecond = bytesPerSecond;
+            tokens = Math.min(tokens, Math.max(bytesPerSecond, 0));
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 取得令牌，必要时阻塞等待
+     *
+     * @param priority 优先级
+     * @param bytes    字节数
+     * @throws InterruptedIOException 等待时被中断
+     */
+    void acquire(TransferPriority priority, long bytes) throws InterruptedIOException {
+        if (isUnlimited()) {
+            return;
+        }
+        final boolean interactive = priority == TransferPriority.INTERACTIVE;
+        lock.lock();
+        try {
+            if (interactive) {
+                interactiveWaiting++;
+            }
+            try {
+                while (true) {
+                    if (isUnlimited()) {
+                        return;
+                    }
+                    if (!interactive && interactiveWaiting > 0) {
+                        changed.await();
+                        continue;
+                    }
+                    refill();
+                    if (tokens > 0) {
+                        tokens -= bytes;
+                        return;
+                    }
+                    changed.awaitNanos(Math.max(1, (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / bytesPerSecond)));
+                }
+            } finally {
+                if (interactive) {
+                    interactiveWaiting--;
+                    changed.signalAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for bandwidth");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 当前桶中的令牌数，为负数时表示欠款
+     */
+    double available() {
+        lock.lock();
+        try {
+            refill();
+            return tokens;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 正在等待的交互式请求数量
+     */
+    int getInteractiveWaiting() {
+        lock.lock();
+        try {
+            return interactiveWaiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 正在等待令牌的请求数量
+     */
+    int getWaiting() {
+        lock.lock();
+        try {
+            return lock.getWaitQueueLength(changed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill() {
+        final long now = ticker.getAsLong();
+        final long rate = bytesPerSecond;
+        if (rate > 0) {
+            tokens = Math.min(rate, tokens + (double) (now - lastRefill) * rate / TimeUnit.SECONDS.toNanos(1));
+        }
+        lastRefill = now;
+    }
+}
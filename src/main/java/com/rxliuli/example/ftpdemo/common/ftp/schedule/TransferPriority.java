@@ -0,0 +1,17 @@
+package com.rxliuli.example.ftpdemo.common.ftp.schedule;
+
+/**
+ * 传输的优先级
+ *
+ * @author rxliuli
+ */
+public enum TransferPriority {
+    /**
+     * 交互式传输，一般是其它服务同步等待的单个文件，默认的优先级
+     */
+    INTERACTIVE,
+    /**
+     * 批量传输，例如目录同步以及批量上传/下载，只使用交互式传输剩下的带宽
+     */
+    BULK
+}
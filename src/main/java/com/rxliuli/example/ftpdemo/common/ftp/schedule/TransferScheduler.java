@@ -0,0 +1,174 @@
+package com.rxliuli.example.ftpdemo.common.ftp.schedule;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.function.Supplier;
+
+/**
+ * 传输调度器
+ * 所有 ftp/sftp 操作的数据流都经过调度器：先取得所属操作对象自己的令牌，再取得全局的令牌，
+ * 所以既可以限制单个服务器的带宽，也可以限制所有传输加起来的带宽。
+ * 优先级绑定在当前线程上，默认为 {@link TransferPriority#INTERACTIVE}，批量操作的工作线程使用 {@link TransferPriority#BULK}，
+ * 带宽不足时交互式传输优先取得令牌。注意：不限速时调度器不会介入，优先级也就不起作用
+ *
+ * @author rxliuli
+ */
+public class TransferScheduler {
+    /**
+     * 限速时每次读写的最大字节数，避免一次大块读写占用过多的令牌而使交互式传输等待过久
+     */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final TransferScheduler INSTANCE = new TransferScheduler(0);
+    private static final ThreadLocal<TransferPriority> PRIORITY = ThreadLocal.withInitial(() -> TransferPriority.INTERACTIVE);
+
+    private final TokenBucket global;
+
+    /**
+     * @param maxBytesPerSecond 全局的最大速率（字节/秒），小于等于 0 表示不限速
+     */
+    public TransferScheduler(long maxBytesPerSecond) {
+        this.global = new TokenBucket(maxBytesPerSecond);
+    }
+
+    /**
+     * @return 所有操作对象共享的调度器，默认不限速
+     */
+    public static TransferScheduler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return 当前线程的传输优先级
+     */
+    public static TransferPriority currentPriority() {
+        return PRIORITY.get();
+    }
+
+    /**
+     * 以指定的优先级执行操作，完成后恢复原来的优先级
+     *
+     * @param priority 优先级
+     * @param action   操作
+     * @param <R>      返回类型
+     * @return 操作的返回值
+     */
+    public static <R> R withPriority(TransferPriority priority, Supplier<R> action) {
+        final TransferPriority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        try {
+            return action.get();
+        } finally {
+            PRIORITY.set(previous);
+        }
+    }
+
+    /**
+     * 包装一个操作，在执行时使用调用这个方法的线程当前的优先级
+     * 用于把任务提交到其它线程执行时传递优先级
+     *
+     * @param action 操作
+     * @param <R>    返回类型
+     * @return 包装之后的操作
+     */
+    public static <R> Supplier<R> inheritPriority(Supplier<R> action) {
+        final TransferPriority priority = currentPriority();
+        return () -> withPriority(priority, action);
+    }
+
+    public long getMaxBytesPerSecond() {
+        return global.getBytesPerSecond();
+    }
+
+    /**
+     * 修改全局的最大速率，立即对正在进行的传输生效
+     *
+     * @param maxBytesPerSecond 最大速率（字节/秒），小于等于 0 表示不限速
+     * @return 当前对象
+     */
+    public TransferScheduler setMaxBytesPerSecond(long maxBytesPerSecond) {
+        global.setBytesPerSecond(maxBytesPerSecond);
+        return this;
+    }
+
+    /**
+     * 创建一个操作对象使用的限速器
+     *
+     * @param maxBytesPerSecond 这个操作对象的最大速率（字节/秒），小于等于 0 表示只受全局速率的限制
+     * @return 限速器
+     */
+    public TransferLimiter limiter(long maxBytesPerSecond) {
+        return new TransferLimiter(this, new TokenBucket(maxBytesPerSecond));
+    }
+
+    boolean isUnlimited() {
+        return global.isUnlimited();
+    }
+
+    void acquire(TransferPriority priority, long bytes) throws InterruptedIOException {
+        global.acquire(priority, bytes);
+    }
+
+    /**
+     * 操作对象的限速器，包装数据流使之经过调度器
+     */
+    public static class TransferLimiter {
+        private final TransferScheduler scheduler;
+        private final TokenBucket local;
+
+        TransferLimiter(TransferScheduler scheduler, TokenBucket local) {
+            this.scheduler = scheduler;
+            this.local = local;
+        }
+
+        /**
+         * 包装读取的数据流
+         * 不限速时每次读取只多一次判断，所以总是包装，以便修改速率后对正在进行的传输生效
+         *
+         * @param is 数据流
+         * @return 限速的数据流
+         */
+        public InputStream wrap(InputStream is) {
+            return is == null ? null : new ThrottledInputStream(is, this);
+        }
+
+        /**
+         * 包装写入的数据流
+         *
+         * @param os 数据流
+         * @return 限速的数据流
+         */
+        public OutputStream wrap(OutputStream os) {
+            return os == null ? null : new ThrottledOutputStream(os, this);
+        }
+
+        public long getMaxBytesPerSecond() {
+            return local.getBytesPerSecond();
+        }
+
+        /**
+         * 修改这个操作对象的最大速率，立即对正在进行的传输生效
+         *
+         * @param maxBytesPerSecond 最大速率（字节/秒），小于等于 0 表示只受全局速率的限制
+         * @return 当前对象
+         */
+        public TransferLimiter setMaxBytesPerSecond(long maxBytesPerSecond) {
+            local.setBytesPerSecond(maxBytesPerSecond);
+            return this;
+        }
+
+        boolean isUnlimited() {
+            return local.isUnlimited() && scheduler.isUnlimited();
+        }
+
+        void acquire(long bytes) throws InterruptedIOException {
+            if (isUnlimited()) {
+                return;
+            }
+            final TransferPriority priority = currentPriority();
+            local.acquire(priority, bytes);
+            scheduler.acquire(priority, bytes);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.rxliuli.example.ftpdemo.common.ftp.sftp;
+
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+
+/**
+ * {@link ChannelSftp} 连接池的对象工厂
+ * 通道打开在 {@link SftpSessionManager} 管理的共享会话上，而非每次都创建新的会话
+ *
+ * @author rxliuli
+ */
+public class SftpChannelFactory extends BasePooledObjectFactory<ChannelSftp> {
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final SftpClientConfig config;
+    private final SftpSessionManager sessionManager;
+
+    public SftpChannelFactory(SftpClientConfig config, SftpSessionManager sessionManager) {
+        this.config = config;
+        this.sessionManager = sessionManager;
+    }
+
+    @Override
+    public ChannelSftp create() throws Exception {
+        final Session session = sessionManager.acquire();
+        try {
+            final ChannelSftp sftp = (ChannelSftp) session.openChannel("sftp");
+            sftp.connect();
+
+            //使用反射强制修改编码格式
+            Class cl = ChannelSftp.class;
+            Field f1 = cl.getDeclaredField("server_version");
+            f1.setAccessible(true);
+            f1.set(sftp, 2);
+            sftp.setFilenameEncoding(config.getEncoding());
+
+            log.info("Sftp connection successful: {}", sftp);
+            return sftp;
+        } catch (Exception e) {
+            sessionManager.release(session);
+            throw e;
+        }
+    }
+
+    @Override
+    public PooledObject<ChannelSftp> wrap(ChannelSftp sftp) {
+        return new DefaultPooledObject<>(sftp);
+    }
+
+    @Override
+    public boolean validateObject(PooledObject<ChannelSftp> p) {
+        final ChannelSftp sftp = p.getObject();
+        try {
+            return sftp.isConnected() && !sftp.isClosed() && sftp.getSession().isConnected();
+        } catch (JSchException e) {
+            log.info("Sftp connection validate failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroyObject(PooledObject<ChannelSftp> p) {
+        final ChannelSftp sftp = p.getObject();
+        sftp.disconnect();
+        try {
+            sessionManager.release(sftp.getSession());
+        } catch (JSchException e) {
+            log.error("Release ssh session failed: {}", e);
+        }
+    }
+}
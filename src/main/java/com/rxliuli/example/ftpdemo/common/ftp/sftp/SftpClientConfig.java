@@ -11,6 +11,9 @@ import com.rxliuli.example.ftpdemo.common.ftp.BaseFtpClientConfig;
 public class SftpClientConfig extends BaseFtpClientConfig {
     public static final String DEFAULT_STRICT_HOST_KEY_CHECKING = "no";
     public static final String DEFAULT_ENCODING = "UTF-8";
+    public static final int DEFAULT_SESSION_SIZE = 2;
+    public static final int DEFAULT_MAX_CHANNELS_PER_SESSION = 8;
+    public static final int DEFAULT_SERVER_ALIVE_INTERVAL = 30_000;
     /**
      * 是否进行严格 RSA 密钥检查，默认使用密码登录所以不检查
      */
@@ -19,6 +22,18 @@ public class SftpClientConfig extends BaseFtpClientConfig {
      * sftp 发送命令的编码格式，默认全局使用 UTF-8（最广泛也最安全）
      */
     private String encoding = DEFAULT_ENCODING;
+    /**
+     * 最多保持的 ssh 会话数量
+     */
+    private Integer sessionSize = DEFAULT_SESSION_SIZE;
+    /**
+     * 每个 ssh 会话上最多打开的 sftp 通道数量，不应超过服务端的 MaxSessions 配置（OpenSSH 默认为 10）
+     */
+    private Integer maxChannelsPerSession = DEFAULT_MAX_CHANNELS_PER_SESSION;
+    /**
+     * ssh 会话的心跳间隔，单位为毫秒
+     */
+    private Integer serverAliveInterval = DEFAULT_SERVER_ALIVE_INTERVAL;
 
     public SftpClientConfig(String username, String host, String password, Integer port) {
         super(username, host, password, port);
@@ -41,4 +56,31 @@ public class SftpClientConfig extends BaseFtpClientConfig {
         this.encoding = encoding;
         return this;
     }
+
+    public Integer getSessionSize() {
+        return sessionSize;
+    }
+
+    public SftpClientConfig setSessionSize(Integer sessionSize) {
+        this.sessionSize = sessionSize;
+        return this;
+    }
+
+    public Integer getMaxChannelsPerSession() {
+        return maxChannelsPerSession;
+    }
+
+    public SftpClientConfig setMaxChannelsPerSession(Integer maxChannelsPerSession) {
+        this.maxChannelsPerSession = maxChannelsPerSession;
+        return this;
+    }
+
+    public Integer getServerAliveInterval() {
+        return serverAliveInterval;
+    }
+
+    public SftpClientConfig setServerAliveInterval(Integer serverAliveInterval) {
+        this.serverAliveInterval = serverAliveInterval;
+        return this;
+    }
 }
@@ -2,23 +2,28 @@ package com.rxliuli.example.ftpdemo.common.ftp.sftp;
 
 import com.jcraft.jsch.*;
 import com.rxliuli.example.ftpdemo.common.ftp.FtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.KnownDirCache;
 import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.ftp.progress.ProgressTracker;
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferScheduler;
+import com.rxliuli.example.ftpdemo.common.ftp.schedule.TransferScheduler.TransferLimiter;
 import com.rxliuli.example.ftpdemo.common.util.AllowErrorFunction;
+import com.rxliuli.example.ftpdemo.common.util.FileChannelUtil;
 import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+import org.apache.commons.pool2.ObjectPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.reflect.Field;
 import java.util.List;
-import java.util.Properties;
 import java.util.Vector;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.getFileName;
 import static com.rxliuli.example.ftpdemo.common.util.PathUtil.getParentDir;
 
 
@@ -32,53 +37,143 @@ public class SftpOperator implements FtpOperator {
 
     private final SftpClientConfig sftpClientConfig;
 
-    public SftpOperator(SftpClientConfig sftpClientConfig) {
+    /**
+     * ssh 会话管理器
+     */
+    private final SftpSessionManager sessionManager;
+    /**
+     * sftp 通道连接池
+     */
+    private final ObjectPool<ChannelSftp> pool;
+
+    /**
+     * 已知存在的目录，与会话对象共享
+     */
+    private final KnownDirCache knownDirs;
+
+    /**
+     * 会话绑定的 sftp 通道，为 null 时表示每次操作都从连接池中借出通道
+     */
+    private final ChannelSftp bound;
+
+    /**
+     * 数据流的限速器，与会话对象共享
+     */
+    private final TransferLimiter limiter;
+
+    public SftpOperator(SftpClientConfig sftpClientConfig, SftpSessionManager sessionManager, ObjectPool<ChannelSftp> pool) {
+        this(sftpClientConfig, sessionManager, pool, new KnownDirCache(), TransferScheduler.getInstance().limiter(sftpClientConfig.getMaxBytesPerSecond()), null);
+    }
+
+    private SftpOperator(SftpClientConfig sftpClientConfig, SftpSessionManager sessionManager, ObjectPool<ChannelSftp> pool, KnownDirCache knownDirs, TransferLimiter limiter, ChannelSftp bound) {
         this.sftpClientConfig = sftpClientConfig;
+        this.sessionManager = sessionManager;
+        this.pool = pool;
+        this.knownDirs = knownDirs;
+        this.limiter = limiter;
+        this.bound = bound;
     }
 
     /**
-     * MybatisUtil 中 usingOptional() 方法再封装而已
+     * 从连接池中借出一个 sftp 通道执行操作，完成后归还
+     * 如果操作过程中发生异常，则认为 sftp 通道已经不可用并将之销毁
+     * 如果当前对象是 {@link #session(Function)} 中的会话对象，则直接使用绑定的 sftp 通道
      *
      * @param f   执行方法
-     * @param <R> 执行方法
+     * @param <R> 执行方法的返回值类型
      * @return 方法的返回值
      */
     private <R> R using(AllowErrorFunction<ChannelSftp, R> f) {
-        final JSch jSch = new JSch();
-        ChannelSftp sftp = null;
-        Session session = null;
+        if (bound != null) {
+            return apply(bound, f);
+        }
+        final ChannelSftp sftp;
         try {
-            session = jSch.getSession(sftpClientConfig.getUsername(), sftpClientConfig.getHost(), sftpClientConfig.getPort());
-            session.setPassword(sftpClientConfig.getPassword());
-            final Properties properties = new Properties();
-            properties.put("StrictHostKeyChecking", sftpClientConfig.getStrictHostKeyChecking());
-            session.setConfig(properties);
-            session.connect();
-            log.info("JSch open ssh session successful: {}", session);
-
-            sftp = (ChannelSftp) session.openChannel("sftp");
-            sftp.connect();
-
-            //使用反射强制修改编码格式
-            Class cl = ChannelSftp.class;
-            Field f1 = cl.getDeclaredField("server_version");
-            f1.setAccessible(true);
-            f1.set(sftp, 2);
-            sftp.setFilenameEncoding(sftpClientConfig.getEncoding());
-
-            log.info("Sftp connection successful: {}", sftp);
+            sftp = pool.borrowObject();
+        } catch (Exception e) {
+            log.error("Borrow sftp channel failed: {}", e);
+            throw new RuntimeException(e);
+        }
+        boolean broken = true;
+        try {
+            final R result = apply(sftp, f);
+            broken = false;
+            return result;
+        } finally {
+            release(sftp, broken);
+        }
+    }
 
+    /**
+     * 在指定的 sftp 通道上执行操作，并将检查型异常转换为运行时异常
+     *
+     * @param sftp sftp 通道
+     * @param f   执行方法
+     * @param <R> 执行方法的返回值类型
+     * @return 方法的返回值
+     */
+    private <R> R apply(ChannelSftp sftp, AllowErrorFunction<ChannelSftp, R> f) {
+        try {
             return f.apply(sftp);
+        } catch (RuntimeException e) {
+            log.error("sftp operation failed: {}", e);
+            throw e;
         } catch (Throwable e) {
             log.error("sftp operation failed: {}", e);
             throw new RuntimeException(e);
-        } finally {
-            if (sftp != null && sftp.isConnected()) {
-                sftp.disconnect();
-            }
-            if (session != null && session.isConnected()) {
-                session.disconnect();
+        }
+    }
+
+    /**
+     * 获取绑定在指定 sftp 通道上的会话对象
+     *
+     * @param sftp sftp 通道
+     * @return 会话对象，所有操作都将使用这个 sftp 通道
+     */
+    private SftpOperator bind(ChannelSftp sftp) {
+        return sftp == bound ? this : new SftpOperator(sftpClientConfig, sessionManager, pool, knownDirs, limiter, sftp);
+    }
+
+    @Override
+    public int getBulkParallelism() {
+        return sftpClientConfig.getBulkParallelism();
+    }
+
+    @Override
+    public <R> R session(Function<FtpOperator, R> action) {
+        if (bound != null) {
+            return action.apply(this);
+        }
+        return using(sftp -> action.apply(bind(sftp)));
+    }
+
+    /**
+     * 将 sftp 通道归还到连接池
+     *
+     * @param sftp   sftp 通道
+     * @param broken 通道是否已经不可用
+     */
+    private void release(ChannelSftp sftp, boolean broken) {
+        try {
+            if (broken) {
+                pool.invalidateObject(sftp);
+            } else {
+                pool.returnObject(sftp);
             }
+        } catch (Exception e) {
+            log.error("Release sftp channel failed: {}", e);
+        }
+    }
+
+    /**
+     * 关闭连接池并断开所有的 ssh 会话，之后这个对象将不再可用
+     */
+    @Override
+    public void close() {
+        //会话对象不持有连接池
+        if (bound == null) {
+            pool.close();
+            sessionManager.close();
         }
     }
 
@@ -88,26 +183,78 @@ public class SftpOperator implements FtpOperator {
         final Vector<ChannelSftp.LsEntry> vector = using(sftp -> sftp.ls(path));
         return vector.stream()
                 .map(lsEntry ->
-                        new Stat(
+                        Stat.child(
+                                path,
                                 lsEntry.getFilename(),
-                                PathUtil.join(path, lsEntry.getFilename()),
                                 lsEntry.getAttrs().isDir(),
-                                lsEntry.getAttrs().getSize()
+                                lsEntry.getAttrs().getSize(),
+                                lsEntry.getAttrs().getMTime() * 1000L,
+                                lsEntry.getAttrs().getPermissionsString().substring(1)
                         )
                 )
                 .filter(stat -> !stat.getName().equals(PathUtil.CURRENT_DIR) && !stat.getName().equals(PathUtil.PARENT_DIR))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stat stat(String path) {
+        return using(sftp -> {
+            try {
+                final SftpATTRS attrs = sftp.stat(path);
+                return Stat.child(
+                        getParentDir(path),
+                        getFileName(path),
+                        attrs.isDir(),
+                        attrs.getSize(),
+                        attrs.getMTime() * 1000L,
+                        attrs.getPermissionsString().substring(1)
+                );
+            } catch (SftpException e) {
+                if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+                    return null;
+                }
+                throw e;
+            }
+        });
+    }
+
     @Override
     public boolean get(String remoteFilePath, File localFile, boolean isCreateFile) {
+        return download(remoteFilePath, localFile, isCreateFile, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 使用 {@link SftpProgressMonitor} 记录进度，总字节数由 JSch 在开始下载时获取
+     */
+    @Override
+    public boolean get(String remoteFilePath, File localFile, boolean isCreateFile, ProgressTracker tracker) {
+        boolean result = false;
+        try {
+            result = download(remoteFilePath, localFile, isCreateFile, monitor(tracker));
+            return result;
+        } finally {
+            tracker.finish(result);
+        }
+    }
+
+    /**
+     * 下载文件
+     *
+     * @param remoteFilePath 远程文件路径
+     * @param localFile      本地文件
+     * @param isCreateFile   是否创建父目录
+     * @param monitor        进度回调，可以为 null
+     * @return 是否下载成功
+     */
+    private boolean download(String remoteFilePath, File localFile, boolean isCreateFile, SftpProgressMonitor monitor) {
         if (isCreateFile) {
             final boolean mkdirs = localFile.getParentFile().mkdirs();
             log.info("create file successful: {}", mkdirs);
         }
         return using(sftp -> {
-            try (final OutputStream os = new FileOutputStream(localFile)) {
-                sftp.get(remoteFilePath, os);
+            try (final OutputStream os = FileChannelUtil.newOutputStream(localFile, false, sftpClientConfig.getBufferSize())) {
+                sftp.get(remoteFilePath, limiter.wrap(os), monitor);
                 return true;
             } catch (SftpException e) {
                 log.error("sftp get operation failed: {}", e);
@@ -118,8 +265,17 @@ public class SftpOperator implements FtpOperator {
 
     @Override
     public <R> R get(String remoteFilePath, Function<InputStream, R> action) {
+        return get(remoteFilePath, 0L, action);
+    }
+
+    /**
+     * {@inheritDoc}
+     * sftp 协议本身按照偏移量读取，所以直接从偏移量处开始
+     */
+    @Override
+    public <R> R get(String remoteFilePath, long offset, Function<InputStream, R> action) {
         return using(sftp -> {
-            try (InputStream is = sftp.get(remoteFilePath)) {
+            try (InputStream is = limiter.wrap(sftp.get(remoteFilePath, null, offset))) {
                 return action.apply(is);
             } catch (SftpException e) {
                 log.error("sftp get operation failed: {}", e);
@@ -128,17 +284,84 @@ public class SftpOperator implements FtpOperator {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * 使用配置的缓冲区大小读取本地文件
+     */
+    @Override
+    public boolean put(File localFile, String remoteFilePath, boolean isCreateDir) {
+        try {
+            return put(FileChannelUtil.newInputStream(localFile, sftpClientConfig.getBufferSize()), remoteFilePath, isCreateDir);
+        } catch (FileNotFoundException e) {
+            log.error("sftp put operation failed: {}", e);
+            return false;
+        }
+    }
+
     @Override
     public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir) {
-        if (isCreateDir) {
-            mkdirR(getParentDir(remoteFilePath));
+        return upload(localIs, remoteFilePath, isCreateDir, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 使用 {@link SftpProgressMonitor} 记录进度
+     */
+    @Override
+    public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir, ProgressTracker tracker) {
+        boolean result = false;
+        try {
+            result = upload(localIs, remoteFilePath, isCreateDir, monitor(tracker));
+            return result;
+        } finally {
+            tracker.finish(result);
         }
+    }
+
+    /**
+     * 上传文件
+     *
+     * @param localIs        本地文件
+     * @param remoteFilePath 远程文件路径
+     * @param isCreateDir    是否创建父目录
+     * @param monitor        进度回调，可以为 null
+     * @return 是否上传成功
+     */
+    private boolean upload(InputStream localIs, String remoteFilePath, boolean isCreateDir, SftpProgressMonitor monitor) {
         return using(sftp -> {
             try {
-                sftp.put(localIs, remoteFilePath);
+                if (isCreateDir) {
+                    bind(sftp).mkdirR(getParentDir(remoteFilePath));
+                }
+                sftp.put(limiter.wrap(localIs), remoteFilePath, monitor);
                 return true;
             } catch (SftpException e) {
                 log.error("sftp put operation failed: {}", e);
+                if (isCreateDir) {
+                    //父目录可能已被其他客户端删除，下次上传时重新检查
+                    knownDirs.invalidate(getParentDir(remoteFilePath));
+                }
+                return false;
+            } finally {
+                if (localIs != null) {
+                    localIs.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * 使用 {@link ChannelSftp#APPEND} 模式追加
+     */
+    @Override
+    public boolean append(InputStream localIs, String remoteFilePath) {
+        return using(sftp -> {
+            try {
+                sftp.put(limiter.wrap(localIs), remoteFilePath, ChannelSftp.APPEND);
+                return true;
+            } catch (SftpException e) {
+                log.error("sftp append operation failed: {}", e);
                 return false;
             } finally {
                 if (localIs != null) {
@@ -163,6 +386,7 @@ public class SftpOperator implements FtpOperator {
 
     @Override
     public boolean rmdir(String path) {
+        knownDirs.invalidate(path);
         return using(sftp -> {
             try {
                 sftp.rmdir(path);
@@ -174,6 +398,15 @@ public class SftpOperator implements FtpOperator {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * 跳过已知存在的目录，只检查/创建缺失的部分
+     */
+    @Override
+    public boolean mkdirR(String path) {
+        return session(sftp -> knownDirs.mkdirR(sftp, path));
+    }
+
     @Override
     public boolean mkdir(String path) {
         return using(sftp -> {
@@ -200,4 +433,29 @@ public class SftpOperator implements FtpOperator {
             return stat.isDir() || stat.getSize() >= 0;
         });
     }
+
+    /**
+     * 将进度跟踪适配为 JSch 的进度回调
+     *
+     * @param tracker 进度跟踪
+     * @return 进度回调
+     */
+    private SftpProgressMonitor monitor(ProgressTracker tracker) {
+        return new SftpProgressMonitor() {
+            @Override
+            public void init(int op, String src, String dest, long max) {
+                tracker.setTotalBytes(max);
+            }
+
+            @Override
+            public boolean count(long count) {
+                tracker.add(count);
+                return true;
+            }
+
+            @Override
+            public void end() {
+            }
+        };
+    }
 }
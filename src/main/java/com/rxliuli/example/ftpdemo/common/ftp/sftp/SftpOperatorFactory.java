@@ -1,19 +1,40 @@
 package com.rxliuli.example.ftpdemo.common.ftp.sftp;
 
+import com.jcraft.jsch.ChannelSftp;
 import com.rxliuli.example.ftpdemo.common.ftp.BaseFtpOperatorFactory;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author rxliuli
  */
 public class SftpOperatorFactory implements BaseFtpOperatorFactory {
+    private final Logger log = LoggerFactory.getLogger(getClass());
     private SftpClientConfig baseFtpClientConfig;
 
     public SftpOperatorFactory(SftpClientConfig baseFtpClientConfig) {
         this.baseFtpClientConfig = baseFtpClientConfig;
     }
 
+    /**
+     * 创建 sftp 操作对象
+     * 通道池的最大数量不能超过所有会话可以打开的通道总数，否则多出的通道会因为会话已满而打开失败
+     */
     @Override
     public SftpOperator createOperator() {
-        return new SftpOperator(baseFtpClientConfig);
+        final SftpSessionManager sessionManager = new SftpSessionManager(baseFtpClientConfig);
+        final GenericObjectPoolConfig<ChannelSftp> poolConfig = baseFtpClientConfig.getPoolConfig().toObjectPoolConfig();
+        final int maxChannels = sessionManager.getMaxChannels();
+        if (poolConfig.getMaxTotal() < 0 || poolConfig.getMaxTotal() > maxChannels) {
+            log.info("sftp pool maxTotal {} exceeds sessionSize * maxChannelsPerSession, use {}", poolConfig.getMaxTotal(), maxChannels);
+            poolConfig.setMaxTotal(maxChannels);
+        }
+        final GenericObjectPool<ChannelSftp> pool = new GenericObjectPool<>(
+                new SftpChannelFactory(baseFtpClientConfig, sessionManager),
+                poolConfig
+        );
+        return new SftpOperator(baseFtpClientConfig, sessionManager, pool);
     }
 }
@@ -0,0 +1,135 @@
+package com.rxliuli.example.ftpdemo.common.ftp.sftp;
+
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * ssh 会话管理器
+ * 保持少量长期存活并且已经认证的 {@link Session}，每个会话上可以打开多个 sftp 通道
+ * 断开的会话将在下一次获取时被发现并重新连接
+ *
+ * @author rxliuli
+ */
+public class SftpSessionManager {
+    private final Logger log = LoggerFactory.getLogger(getClass());
+
+    private final SftpClientConfig config;
+    /**
+     * 当前持有的会话列表
+     */
+    private final List<SessionHolder> holders = new ArrayList<>();
+
+    public SftpSessionManager(SftpClientConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 获取一个还能打开通道的会话
+     * 优先使用通道数量最少的会话，如果所有会话均已满并且会话数量未达上限则创建新的会话。
+     * 所有会话的通道数都已达到上限时直接失败，超过服务器的 MaxSessions 打开通道也会被拒绝
+     *
+     * @return 已经连接的会话
+     * @throws JSchException 创建会话失败或者所有会话均已满
+     */
+    public synchronized Session acquire() throws JSchException {
+        removeDeadSessions();
+        SessionHolder target = null;
+        for (SessionHolder holder : holders) {
+            if (target == null || holder.channels < target.channels) {
+                target = holder;
+            }
+        }
+        if (target == null || target.channels >= config.getMaxChannelsPerSession()) {
+            if (holders.size() >= config.getSessionSize()) {
+                throw new JSchException("All " + holders.size() + " ssh sessions already have " + config.getMaxChannelsPerSession() + " channels open");
+            }
+            target = new SessionHolder(connect());
+            holders.add(target);
+        }
+        target.channels++;
+        return target.session;
+    }
+
+    /**
+     * @return 所有会话最多可以同时打开的通道数量
+     */
+    public int getMaxChannels() {
+        return config.getSessionSize() * config.getMaxChannelsPerSession();
+    }
+
+    /**
+     * 归还会话，表示会话上的一个通道已经关闭
+     *
+     * @param session 会话
+     */
+    public synchronized void release(Session session) {
+        for (SessionHolder holder : holders) {
+            if (holder.session == session) {
+                holder.channels--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 断开所有的会话
+     */
+    public synchronized void close() {
+        holders.forEach(holder -> holder.session.disconnect());
+        holders.clear();
+    }
+
+    /**
+     * 移除已经断开的会话
+     */
+    private void removeDeadSessions() {
+        final Iterator<SessionHolder> iterator = holders.iterator();
+        while (iterator.hasNext()) {
+            final SessionHolder holder = iterator.next();
+            if (!holder.session.isConnected()) {
+                log.info("JSch ssh session disconnected, it will be reconnected: {}", holder.session);
+                holder.session.disconnect();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 创建一个新的会话并完成认证
+     *
+     * @return 已经连接的会话
+     * @throws JSchException 连接失败
+     */
+    private Session connect() throws JSchException {
+        final Session session = new JSch().getSession(config.getUsername(), config.getHost(), config.getPort());
+        session.setPassword(config.getPassword());
+        final Properties properties = new Properties();
+        properties.put("StrictHostKeyChecking", config.getStrictHostKeyChecking());
+        session.setConfig(properties);
+        //定时发送心跳，尽早发现断开的会话
+        session.setServerAliveInterval(config.getServerAliveInterval());
+        session.connect();
+        log.info("JSch open ssh session successful: {}", session);
+        return session;
+    }
+
+    /**
+     * 会话以及其上打开的通道数量
+     */
+    private static class SessionHolder {
+        private final Session session;
+        private int channels;
+
+        private SessionHolder(Session session) {
+            this.session = session;
+        }
+    }
+}
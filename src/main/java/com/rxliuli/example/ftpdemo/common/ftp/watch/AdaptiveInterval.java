@@ -0,0 +1,42 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+/**
+ * 自适应的扫描间隔
+ * 发现变化时间隔恢复到最小值，之后每次没有变化都将间隔翻倍，直到最大值。
+ * 扫描本身的耗时计入间隔，但等待的时间至少与扫描耗时相同，避免扫描很慢时连续不断地占用连接
+ *
+ * @author rxliuli
+ */
+class AdaptiveInterval {
+    private final long minNanos;
+    private final long maxNanos;
+    private long currentNanos;
+
+    AdaptiveInterval(long minNanos, long maxNanos) {
+        if (minNanos <= 0 || maxNanos < minNanos) {
+            throw new IllegalArgumentException("invalid interval: min " + minNanos + ", max " + maxNanos);
+        }
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.currentNanos = minNanos;
+    }
+
+    /**
+     * 计算下一次扫描之前需要等待的时间
+     *
+     * @param changed   上一次扫描是否发现了变化
+     * @param scanNanos 上一次扫描的耗时
+     * @return 需要等待的纳秒数
+     */
+    long next(boolean changed, long scanNanos) {
+        currentNanos = changed ? minNanos : Math.min(maxNanos, currentNanos * 2);
+        return Math.max(currentNanos - scanNanos, scanNanos);
+    }
+
+    /**
+     * @return 当前的扫描间隔
+     */
+    long current() {
+        return currentNanos;
+    }
+}
@@ -0,0 +1,60 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+
+import java.util.List;
+
+/**
+ * 目录指纹
+ * 由目录的列表计算：条目数量，文件大小之和，最大的修改时间，以及与顺序无关的条目哈希之和。
+ * 前三项是服务器在列表中就能提供的信息，哈希之和用于发现重命名以及子目录修改时间的变化等前三项无法反映的情况
+ *
+ * @author rxliuli
+ */
+class DirFingerprint {
+    private final int count;
+    private final long size;
+    private final long maxMtime;
+    private final long hashSum;
+
+    private DirFingerprint(int count, long size, long maxMtime, long hashSum) {
+        this.count = count;
+        this.size = size;
+        this.maxMtime = maxMtime;
+        this.hashSum = hashSum;
+    }
+
+    static DirFingerprint of(List<Stat> listing) {
+        long size = 0;
+        long maxMtime = 0;
+        long hashSum = 0;
+        for (Stat stat : listing) {
+            if (!stat.isDirectory()) {
+                size += stat.length();
+            }
+            maxMtime = Math.max(maxMtime, stat.lastModified());
+            hashSum += stat.hashCode();
+        }
+        return new DirFingerprint(listing.size(), size, maxMtime, hashSum);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DirFingerprint)) {
+            return false;
+        }
+        final DirFingerprint that = (DirFingerprint) o;
+        return count == that.count &&
+                size == that.size &&
+                maxMtime == that.maxMtime &&
+                hashSum == that.hashSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(31 * (31 * (31 * count + size) + maxMtime) + hashSum);
+    }
+}
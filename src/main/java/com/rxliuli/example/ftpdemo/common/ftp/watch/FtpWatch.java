@@ -3,21 +3,17 @@ package com.rxliuli.example.ftpdemo.common.ftp.watch;
 import com.rxliuli.example.ftpdemo.common.ftp.FtpOperator;
 import com.rxliuli.example.ftpdemo.common.ftp.Stat;
 import com.rxliuli.example.ftpdemo.common.util.ListUtil;
-import com.rxliuli.example.ftpdemo.common.util.ThreadUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
+import java.util.Queue;
+import java.util.concurrent.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * ftp 监听操作
@@ -25,6 +21,11 @@ import java.util.function.Function;
  * @author rxliuli
  */
 public class FtpWatch {
+    /**
+     * 默认的超时时间（分钟）
+     */
+    private static final int DEFAULT_TIMEOUT = 10;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     /**
@@ -33,6 +34,15 @@ public class FtpWatch {
      * v 是回调函数，在满足临界条件后调用一次，然后删除
      */
     private final ConcurrentHashMap<Function<Map<ListUtil.ListDiffState, List<Stat>>, Optional<Stat>>, Consumer<Stat>> listenerMap = new ConcurrentHashMap<>();
+    /**
+     * 按照路径索引的监听器，每个变化只会访问可能匹配它的监听器
+     */
+    private final ListenerIndex listenerIndex = new ListenerIndex();
+    /**
+     * 等待中的任意条件的异步监听器，每次扫描之后都需要对每个监听器判断一次
+     * 只在每次扫描之后使用同一份差异判断一次，两次扫描之间没有任何开销
+     */
+    private final Queue<PendingListener> pendingListeners = new ConcurrentLinkedQueue<>();
     /**
      * ftp 操作类
      */
@@ -42,9 +52,13 @@ public class FtpWatch {
      */
     private final FtpWatchConfig ftpWatchConfig;
     /**
-     * 旧的 stat 列表
+     * 上一次扫描的快照
+     */
+    private volatile WatchSnapshot oldSnapshot;
+    /**
+     * 增量扫描，没有开启时为 null
      */
-    private List<Stat> oldStatList;
+    private final IncrementalScanner incrementalScanner;
 
     /**
      * 避免直接使用构造函数初始化 FtpWatch
@@ -52,27 +66,74 @@ public class FtpWatch {
     protected FtpWatch(FtpOperator ftpOperator, FtpWatchConfig ftpWatchConfig) {
         this.ftpOperator = ftpOperator;
         this.ftpWatchConfig = ftpWatchConfig;
+        this.incrementalScanner = ftpWatchConfig.isIncremental()
+                ? new IncrementalScanner(ftpOperator, ftpWatchConfig.getPath(), ftpWatchConfig.getFullScanInterval())
+                : null;
     }
 
     /**
      * 监听根目录的变化，并通知所有异步请求
      */
     public void startWatch() {
-        oldStatList = ftpOperator.lsR(ftpWatchConfig.getPath());
-        Executors.newScheduledThreadPool(1).scheduleWithFixedDelay(() -> {
-                    try {
-                        final List<Stat> statList = ftpOperator.lsR(ftpWatchConfig.getPath());
-                        final Map<ListUtil.ListDiffState, List<Stat>> different = ListUtil.different(oldStatList, statList);
-                        oldStatList = statList;
-                        ftpWatchConfig.getCallback().accept(different, listenerMap);
-                    } catch (Exception e) {
-                        log.error("Listening to directory change scheduled task exception: {}", e);
-                    }
-                },
-                0,
-                ftpWatchConfig.getInterval(),
-                ftpWatchConfig.getUnit()
-        );
+        oldSnapshot = WatchSnapshot.of(scan());
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "ftp-watch-" + ftpWatchConfig.getPath());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (ftpWatchConfig.isAdaptive()) {
+            final AdaptiveInterval adaptiveInterval = new AdaptiveInterval(
+                    ftpWatchConfig.getUnit().toNanos(ftpWatchConfig.getMinInterval()),
+                    ftpWatchConfig.getUnit().toNanos(ftpWatchConfig.getMaxInterval())
+            );
+            scheduleAdaptive(executor, adaptiveInterval, 0);
+        } else {
+            executor.scheduleWithFixedDelay(this::tick,
+                    0,
+                    ftpWatchConfig.getInterval(),
+                    ftpWatchConfig.getUnit()
+            );
+        }
+    }
+
+    /**
+     * 每次扫描之后根据是否发现变化以及扫描的耗时重新计算间隔，安排下一次扫描
+     */
+    private void scheduleAdaptive(ScheduledExecutorService executor, AdaptiveInterval adaptiveInterval, long delayNanos) {
+        executor.schedule(() -> {
+            final long start = System.nanoTime();
+            final boolean changed = tick();
+            scheduleAdaptive(executor, adaptiveInterval, adaptiveInterval.next(changed, System.nanoTime() - start));
+        }, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 扫描一次并通知所有监听器
+     *
+     * @return 是否发现了变化，扫描失败时为 false
+     */
+    private boolean tick() {
+        WatchDiff different = null;
+        try {
+            final WatchSnapshot snapshot = WatchSnapshot.of(scan());
+            different = oldSnapshot.diff(snapshot);
+            oldSnapshot = snapshot;
+            ftpWatchConfig.getCallback().accept(different.toMap(), listenerMap);
+        } catch (Exception e) {
+            log.error("Listening to directory change scheduled task exception: {}", e);
+        } finally {
+            dispatch(different);
+        }
+        return different != null && !different.isEmpty();
+    }
+
+    /**
+     * 扫描一次监听的目录
+     *
+     * @return 目录下的所有文件/目录
+     */
+    private List<Stat> scan() {
+        return incrementalScanner == null ? ftpOperator.lsR(ftpWatchConfig.getPath()) : incrementalScanner.scan();
     }
 
     /**
@@ -87,32 +148,129 @@ public class FtpWatch {
 
     /**
      * 添加一个监听器
+     * 监听器在之后的每次扫描中使用扫描得到的差异进行判断，满足条件时完成，超时后以 null 完成。
+     * 超时只在扫描时检查，所以实际的超时时间最多会多出一个扫描间隔
      *
      * @param condition 临界条件
-     * @return 异步完成的对象
+     * @return 异步完成的对象，取消之后将在下次扫描时移除
      */
     public CompletableFuture<Stat> addListener(Function<Map<ListUtil.ListDiffState, List<Stat>>, Optional<Stat>> condition) {
-        final List<Stat> temp = new LinkedList<>(this.oldStatList);
-        final LocalDateTime start = LocalDateTime.now();
-        return CompletableFuture.supplyAsync(() -> {
-            while (true) {
-                final Map<ListUtil.ListDiffState, List<Stat>> different = ListUtil.different(temp, oldStatList);
-                //如果发现符合条件就返回当前结果
-                final Optional<Stat> result = condition.apply(different);
-                if (result.isPresent()) {
-                    return result.get();
+        return addPendingListener(different -> condition.apply(different.toMap()));
+    }
+
+    /**
+     * 添加一个监听任意路径条件的监听器
+     * 每个变化都需要对每个这样的监听器判断一次，如果只是监听某个路径或者某个目录下的文件，
+     * 请使用 {@link #addPathListener(String)} 或者 {@link #addPrefixListener(String)}
+     *
+     * @param condition 新增或修改的文件路径的判断条件
+     * @return 异步完成的对象，超时后以 null 完成
+     */
+    public CompletableFuture<Stat> addListener(Predicate<String> condition) {
+        return addPendingListener(different -> {
+            for (WatchEvent event : different.getEvents()) {
+                if (event.getNewStat() != null && condition.test(event.getPath())) {
+                    return Optional.of(event.getNewStat());
+                }
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * 添加一个监听指定路径出现或修改的监听器
+     *
+     * @param path 完整路径
+     * @return 异步完成的对象，超时后以 null 完成
+     */
+    public CompletableFuture<Stat> addPathListener(String path) {
+        return addIndexedListener(path, false, true);
+    }
+
+    /**
+     * 添加一个监听指定路径出现或修改的监听器，不会超时
+     *
+     * @param path     完整路径
+     * @param callback 回调函数
+     */
+    public void addPathListener(String path, Consumer<Stat> callback) {
+        addIndexedListener(path, false, false).thenAccept(callback);
+    }
+
+    /**
+     * 添加一个监听目录下（包括目录本身）任意文件/目录出现或修改的监听器
+     *
+     * @param prefix 目录的路径
+     * @return 异步完成的对象，超时后以 null 完成
+     */
+    public CompletableFuture<Stat> addPrefixListener(String prefix) {
+        return addIndexedListener(prefix, true, true);
+    }
+
+    private CompletableFuture<Stat> addIndexedListener(String path, boolean prefix, boolean expires) {
+        final CompletableFuture<Stat> future = new CompletableFuture<>();
+        listenerIndex.add(new ListenerIndex.IndexedListener(path, prefix, future, expires, expires ? deadline() : 0));
+        return future;
+    }
+
+    private CompletableFuture<Stat> addPendingListener(Function<WatchDiff, Optional<Stat>> condition) {
+        final CompletableFuture<Stat> future = new CompletableFuture<>();
+        pendingListeners.add(new PendingListener(condition, future, deadline()));
+        return future;
+    }
+
+    private long deadline() {
+        return System.nanoTime() + TimeUnit.MINUTES.toNanos(ftpWatchConfig.getTimeout() == null ? DEFAULT_TIMEOUT : ftpWatchConfig.getTimeout());
+    }
+
+    /**
+     * 将一次扫描的差异分发给所有等待中的监听器
+     * 索引中的监听器按照每个变化的路径查找，其他监听器使用整个差异逐个判断。
+     * 完成异步对象在公共线程池中进行，避免调用方的后续操作阻塞扫描线程
+     *
+     * @param different 差异，扫描失败时为 null，此时只检查超时
+     */
+    private void dispatch(WatchDiff different) {
+        final long now = System.nanoTime();
+        if (different != null) {
+            for (WatchEvent event : different.getEvents()) {
+                if (event.getNewStat() == null) {
+                    continue;
+                }
+                for (ListenerIndex.IndexedListener listener : listenerIndex.match(event.getPath())) {
+                    complete(listener.getFuture(), event.getNewStat());
                 }
-                temp.clear();
-                temp.addAll(this.oldStatList);
-                if (ChronoUnit.MINUTES.between(start, LocalDateTime.now()) > 10) {
-                    return null;
+            }
+        }
+        for (ListenerIndex.IndexedListener listener : listenerIndex.expire(now)) {
+            complete(listener.getFuture(), null);
+        }
+        pendingListeners.removeIf(listener -> {
+            if (listener.future.isDone()) {
+                return true;
+            }
+            try {
+                final Optional<Stat> result = different == null ? Optional.empty() : listener.condition.apply(different);
+                if (result.isPresent()) {
+                    complete(listener.future, result.get());
+                    return true;
                 }
-                //每次暂停 100ms
-                ThreadUtil.sleep(100);
+            } catch (RuntimeException e) {
+                ForkJoinPool.commonPool().execute(() -> listener.future.completeExceptionally(e));
+                return true;
+            }
+            if (now - listener.deadline >= 0) {
+                complete(listener.future, null);
+                return true;
             }
+            return false;
         });
     }
 
+    private void complete(CompletableFuture<Stat> future, Stat stat) {
+        ForkJoinPool.commonPool().execute(() -> future.complete(stat));
+    }
+
     public FtpOperator getFtpOperator() {
         return ftpOperator;
     }
@@ -120,4 +278,22 @@ public class FtpWatch {
     public FtpWatchConfig getFtpWatchConfig() {
         return ftpWatchConfig;
     }
+
+    /**
+     * 等待中的异步监听器
+     */
+    private static class PendingListener {
+        private final Function<WatchDiff, Optional<Stat>> condition;
+        private final CompletableFuture<Stat> future;
+        /**
+         * 超时的时刻，与 {@link System#nanoTime()} 比较
+         */
+        private final long deadline;
+
+        PendingListener(Function<WatchDiff, Optional<Stat>> condition, CompletableFuture<Stat> future, long deadline) {
+            this.condition = condition;
+            this.future = future;
+            this.deadline = deadline;
+        }
+    }
 }
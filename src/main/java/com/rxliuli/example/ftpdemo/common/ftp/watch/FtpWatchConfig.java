@@ -19,6 +19,12 @@ import java.util.function.Function;
  * @author rxliuli
  */
 public class FtpWatchConfig {
+    public static final int DEFAULT_FULL_SCAN_INTERVAL = 10;
+    /**
+     * 自适应扫描时，没有配置最大间隔则使用最小间隔的倍数
+     */
+    public static final int DEFAULT_MAX_INTERVAL_MULTIPLE = 30;
+
     /**
      * 扫描间隔时间单位，默认为毫秒
      */
@@ -40,6 +46,28 @@ public class FtpWatchConfig {
      * 主要根据监听目录的变化去调用相应的监听列表函数
      */
     private final BiConsumer<Map<ListUtil.ListDiffState, List<Stat>>, ConcurrentHashMap<Function<Map<ListUtil.ListDiffState, List<Stat>>, Optional<Stat>>, Consumer<Stat>>> callback;
+    /**
+     * 是否使用增量扫描，默认每次都递归列出整个目录树
+     * 增量扫描依赖服务器在目录中的条目增删时更新目录的修改时间
+     */
+    private boolean incremental = false;
+    /**
+     * 增量扫描时，每个目录至少每隔多少次扫描重新列出一次
+     */
+    private int fullScanInterval = DEFAULT_FULL_SCAN_INTERVAL;
+    /**
+     * 是否自适应扫描间隔，默认使用固定的 {@link #interval}
+     * 发现变化时缩短到最小间隔，没有变化时指数退避到最大间隔
+     */
+    private boolean adaptive = false;
+    /**
+     * 自适应扫描的最小间隔，默认为 {@link #interval}
+     */
+    private Integer minInterval;
+    /**
+     * 自适应扫描的最大间隔，默认为最小间隔的 {@link #DEFAULT_MAX_INTERVAL_MULTIPLE} 倍
+     */
+    private Integer maxInterval;
 
     public FtpWatchConfig(TimeUnit unit, Integer interval, String path, Integer timeout, BiConsumer<Map<ListUtil.ListDiffState, List<Stat>>, ConcurrentHashMap<Function<Map<ListUtil.ListDiffState, List<Stat>>, Optional<Stat>>, Consumer<Stat>>> callback) {
         this.unit = unit;
@@ -86,24 +114,82 @@ public class FtpWatchConfig {
         return getUnit() == that.getUnit() &&
                 Objects.equals(getInterval(), that.getInterval()) &&
                 Objects.equals(getPath(), that.getPath()) &&
+                isIncremental() == that.isIncremental() &&
+                getFullScanInterval() == that.getFullScanInterval() &&
+                isAdaptive() == that.isAdaptive() &&
+                Objects.equals(getMinInterval(), that.getMinInterval()) &&
+                Objects.equals(getMaxInterval(), that.getMaxInterval()) &&
                 Objects.equals(getCallback(), that.getCallback());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(getUnit(), getInterval(), getPath(), getCallback());
+        return Objects.hash(getUnit(), getInterval(), getPath(), isIncremental(), getFullScanInterval(), isAdaptive(), getMinInterval(), getMaxInterval(), getCallback());
     }
 
     public Integer getTimeout() {
         return timeout;
     }
 
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public FtpWatchConfig setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    public int getFullScanInterval() {
+        return fullScanInterval;
+    }
+
+    public FtpWatchConfig setFullScanInterval(int fullScanInterval) {
+        this.fullScanInterval = fullScanInterval;
+        return this;
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    public FtpWatchConfig setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+        return this;
+    }
+
+    public Integer getMinInterval() {
+        return minInterval == null ? interval : minInterval;
+    }
+
+    public FtpWatchConfig setMinInterval(Integer minInterval) {
+        this.minInterval = minInterval;
+        return this;
+    }
+
+    public Integer getMaxInterval() {
+        if (maxInterval != null || getMinInterval() == null) {
+            return maxInterval;
+        }
+        return getMinInterval() * DEFAULT_MAX_INTERVAL_MULTIPLE;
+    }
+
+    public FtpWatchConfig setMaxInterval(Integer maxInterval) {
+        this.maxInterval = maxInterval;
+        return this;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("FtpWatchConfig{");
         sb.append("unit=").append(unit);
         sb.append(", interval=").append(interval);
         sb.append(", path='").append(path).append('\'');
+        sb.append(", incremental=").append(incremental);
+        sb.append(", fullScanInterval=").append(fullScanInterval);
+        sb.append(", adaptive=").append(adaptive);
+        sb.append(", minInterval=").append(getMinInterval());
+        sb.append(", maxInterval=").append(getMaxInterval());
         sb.append(", callback=").append(callback);
         sb.append('}');
         return sb.toString();
@@ -0,0 +1,147 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.FtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+
+import java.util.*;
+
+/**
+ * 增量扫描监听的目录树
+ * 记住每个目录上一次的列表以及 {@link DirFingerprint}，每次扫描只重新列出：
+ * <ul>
+ * <li>根目录</li>
+ * <li>在父目录的列表中新出现或者信息（一般是修改时间）发生变化的子目录，只有父目录的指纹变化时才需要逐个比较</li>
+ * <li>最久没有列出的 1/{@link #fullScanInterval} 的目录，保证每个目录至少每 {@link #fullScanInterval} 次扫描列出一次</li>
+ * </ul>
+ * 大多数服务器只在目录中的条目增删时更新这个目录的修改时间，不会向上传递，所以深层目录的变化可能要等到轮到它被重新列出时才能发现，
+ * 这相当于把定期的全量扫描分摊到了每次扫描中。服务器不提供目录的修改时间时，增删文件只能依靠轮流重新列出发现
+ * 只在监听线程中使用，不是线程安全的
+ *
+ * @author rxliuli
+ */
+class IncrementalScanner {
+    private final FtpOperator ftpOperator;
+    private final String root;
+    private final int fullScanInterval;
+    /**
+     * 每个目录上次的列表，按照列出的时间排序，最久没有列出的在最前面
+     */
+    private final LinkedHashMap<String, DirListing> dirs = new LinkedHashMap<>();
+
+    IncrementalScanner(FtpOperator ftpOperator, String root, int fullScanInterval) {
+        this.ftpOperator = ftpOperator;
+        this.root = root;
+        this.fullScanInterval = Math.max(1, fullScanInterval);
+    }
+
+    /**
+     * 扫描一次
+     *
+     * @return 根目录下的所有文件/目录，与 {@link FtpOperator#lsR(String)} 的内容相同，但是顺序不同
+     */
+    List<Stat> scan() {
+        ftpOperator.session(ftp -> {
+            rescan(ftp);
+            return null;
+        });
+        final List<Stat> result = new ArrayList<>();
+        dirs.values().forEach(listing -> result.addAll(listing.stats));
+        return result;
+    }
+
+    /**
+     * @return 已知的目录数量，包括根目录
+     */
+    int size() {
+        return dirs.size();
+    }
+
+    private void rescan(FtpOperator ftp) {
+        final Deque<String> queue = new ArrayDeque<>();
+        final Set<String> queued = new HashSet<>();
+        queue.add(root);
+        queued.add(root);
+        //轮流重新列出最久没有列出的目录
+        final int sweep = (dirs.size() + fullScanInterval - 1) / fullScanInterval;
+        dirs.keySet().stream()
+                .limit(sweep)
+                .filter(queued::add)
+                .forEach(queue::add);
+        final Set<String> removed = new HashSet<>();
+        while (!queue.isEmpty()) {
+            final String dir = queue.poll();
+            if (removed.contains(dir)) {
+                continue;
+            }
+            final List<Stat> stats;
+            try {
+                stats = ftp.ls(dir);
+            } catch (RuntimeException e) {
+                //轮流列出的目录可能已经被删除，而父目录还没有重新列出
+                if (dir.equals(root) || ftp.exist(dir)) {
+                    throw e;
+                }
+                removeTree(dir, removed);
+                continue;
+            }
+            final DirListing listing = new DirListing(stats);
+            final DirListing old = dirs.remove(dir);
+            dirs.put(dir, listing);
+            //指纹没有变化，并且所有子目录都已知时，子目录的信息也不会变化
+            if (old != null && old.fingerprint.equals(listing.fingerprint) && listing.childDirs().keySet().stream().allMatch(dirs::containsKey)) {
+                continue;
+            }
+            final Map<String, Stat> oldChildren = old == null ? new HashMap<>() : old.childDirs();
+            for (Stat stat : listing.childDirs().values()) {
+                final Stat before = oldChildren.remove(stat.getPath());
+                if ((before == null || !before.equals(stat) || !dirs.containsKey(stat.getPath())) && queued.add(stat.getPath())) {
+                    queue.add(stat.getPath());
+                }
+            }
+            //已经被删除或者变成文件的子目录
+            oldChildren.keySet().forEach(path -> removeTree(path, removed));
+        }
+    }
+
+    /**
+     * 删除一个目录以及其下所有目录的记录
+     *
+     * @param dir     目录
+     * @param removed 记录被删除的目录，本次扫描中不再列出
+     */
+    private void removeTree(String dir, Set<String> removed) {
+        final String prefix = dir.endsWith(PathUtil.SEPARATOR) ? dir : dir + PathUtil.SEPARATOR;
+        dirs.keySet().removeIf(path -> {
+            final boolean match = path.equals(dir) || path.startsWith(prefix);
+            if (match) {
+                removed.add(path);
+            }
+            return match;
+        });
+        removed.add(dir);
+    }
+
+    /**
+     * 一个目录的列表
+     */
+    private static class DirListing {
+        private final List<Stat> stats;
+        private final DirFingerprint fingerprint;
+
+        DirListing(List<Stat> stats) {
+            this.stats = stats;
+            this.fingerprint = DirFingerprint.of(stats);
+        }
+
+        Map<String, Stat> childDirs() {
+            final Map<String, Stat> map = new HashMap<>();
+            for (Stat stat : stats) {
+                if (stat.isDirectory()) {
+                    map.put(stat.getPath(), stat);
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 按照路径索引的监听器
+ * 精确路径的监听器保存在哈希表中，前缀监听器保存在以路径分段为节点的前缀树中，
+ * 所以每个变化只需要一次哈希查找以及沿着路径向下的一次遍历，与注册的监听器数量无关。
+ * 超时时间保存在按照截止时间排序的堆中，每次只需要检查堆顶，已经完成的监听器在出堆时忽略
+ *
+ * @author rxliuli
+ */
+class ListenerIndex {
+    private final Map<String, List<IndexedListener>> exact = new HashMap<>();
+    private final Node root = new Node();
+    private final PriorityQueue<IndexedListener> deadlines = new PriorityQueue<>(Comparator.comparingLong(listener -> listener.deadline));
+    private int size;
+
+    /**
+     * 注册一个监听器，监听器完成（包括被取消）之后将自动移除
+     *
+     * @param listener 监听器
+     */
+    void add(IndexedListener listener) {
+        synchronized (this) {
+            if (listener.prefix) {
+                node(listener.path).listeners.add(listener);
+            } else {
+                exact.computeIfAbsent(listener.path, k -> new ArrayList<>(1)).add(listener);
+            }
+            if (listener.expires) {
+                deadlines.add(listener);
+            }
+            listener.registered = true;
+            size++;
+        }
+        listener.future.whenComplete((stat, e) -> remove(listener));
+    }
+
+    /**
+     * 取出所有可以匹配这个路径的监听器，取出的监听器不会再次匹配
+     *
+     * @param path 发生变化的路径
+     * @return 匹配的监听器
+     */
+    synchronized List<IndexedListener> match(String path) {
+        List<IndexedListener> result = null;
+        final List<IndexedListener> bucket = exact.remove(path);
+        if (bucket != null) {
+            result = take(result, bucket);
+        }
+        final String[] segments = segments(path);
+        Node node = root;
+        int depth = 0;
+        while (node != null) {
+            if (!node.listeners.isEmpty()) {
+                result = take(result, node.listeners);
+                node.listeners = new ArrayList<>(0);
+            }
+            node = depth < segments.length ? node.children.get(segments[depth++]) : null;
+        }
+        if (result == null) {
+            return Collections.emptyList();
+        }
+        prune(segments);
+        return result;
+    }
+
+    /**
+     * 取出所有已经超时的监听器
+     *
+     * @param now 当前时刻，与 {@link System#nanoTime()} 比较
+     * @return 超时的监听器
+     */
+    synchronized List<IndexedListener> expire(long now) {
+        List<IndexedListener> result = null;
+        while (!deadlines.isEmpty() && now - deadlines.peek().deadline >= 0) {
+            final IndexedListener listener = deadlines.poll();
+            if (listener.registered) {
+                remove(listener);
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+                result.add(listener);
+            }
+        }
+        return result == null ? Collections.emptyList() : result;
+    }
+
+    synchronized void remove(IndexedListener listener) {
+        if (!listener.registered) {
+            return;
+        }
+        listener.registered = false;
+        size--;
+        if (listener.prefix) {
+            final String[] segments = segments(listener.path);
+            final Node node = find(segments);
+            if (node != null) {
+                node.listeners.remove(listener);
+                prune(segments);
+            }
+        } else {
+            final List<IndexedListener> bucket = exact.get(listener.path);
+            if (bucket != null && bucket.remove(listener) && bucket.isEmpty()) {
+                exact.remove(listener.path);
+            }
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private List<IndexedListener> take(List<IndexedListener> result, List<IndexedListener> listeners) {
+        final List<IndexedListener> list = result == null ? new ArrayList<>(listeners.size()) : result;
+        for (IndexedListener listener : listeners) {
+            listener.registered = false;
+            size--;
+            list.add(listener);
+        }
+        return list;
+    }
+
+    private Node node(String path) {
+        Node node = root;
+        for (String segment : segments(path)) {
+            node = node.children.computeIfAbsent(segment, k -> new Node());
+        }
+        return node;
+    }
+
+    private Node find(String[] segments) {
+        Node node = root;
+        for (int i = 0; node != null && i < segments.length; i++) {
+            node = node.children.get(segments[i]);
+        }
+        return node;
+    }
+
+    /**
+     * 从下向上删除路径上不再有监听器与子节点的节点
+     */
+    private void prune(String[] segments) {
+        final Node[] nodes = new Node[segments.length + 1];
+        nodes[0] = root;
+        int depth = 0;
+        while (depth < segments.length && (nodes[depth + 1] = nodes[depth].children.get(segments[depth])) != null) {
+            depth++;
+        }
+        for (int i = depth; i > 0 && nodes[i].listeners.isEmpty() && nodes[i].children.isEmpty(); i--) {
+            nodes[i - 1].children.remove(segments[i - 1]);
+        }
+    }
+
+    private static String[] segments(String path) {
+        return Arrays.stream(path.split(PathUtil.SEPARATOR))
+                .filter(segment -> !segment.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * 前缀树的节点，对应路径中的一段
+     */
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private List<IndexedListener> listeners = new ArrayList<>(0);
+    }
+
+    /**
+     * 注册在索引中的监听器
+     */
+    static class IndexedListener {
+        private final String path;
+        /**
+         * 是否是前缀监听器，前缀监听器匹配路径本身以及路径下的所有文件/目录
+         */
+        private final boolean prefix;
+        private final CompletableFuture<Stat> future;
+        private final boolean expires;
+        /**
+         * 超时的时刻，与 {@link System#nanoTime()} 比较，只在 {@link #expires} 时有效
+         */
+        private final long deadline;
+        /**
+         * 是否仍然在索引中，由索引的锁保护
+         */
+        private boolean registered;
+
+        IndexedListener(String path, boolean prefix, CompletableFuture<Stat> future, boolean expires, long deadline) {
+            this.path = path;
+            this.prefix = prefix;
+            this.future = future;
+            this.expires = expires;
+            this.deadline = deadline;
+        }
+
+        CompletableFuture<Stat> getFuture() {
+            return future;
+        }
+    }
+}
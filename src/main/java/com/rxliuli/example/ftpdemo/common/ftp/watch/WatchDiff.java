@@ -0,0 +1,108 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.util.ListUtil;
+
+import java.util.*;
+
+/**
+ * 两次快照之间的差异
+ * 兼容旧的监听器使用的 {@link ListUtil.ListDiffState} 映射表在第一次需要时才创建，
+ * 其中的公共元素列表只有在真正读取时才会遍历整个快照
+ *
+ * @author rxliuli
+ */
+public class WatchDiff {
+    private final List<WatchEvent> events;
+    private final WatchSnapshot snapshot;
+    private Map<ListUtil.ListDiffState, List<Stat>> map;
+
+    WatchDiff(List<WatchEvent> events, WatchSnapshot snapshot) {
+        this.events = events;
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return 所有变化的事件
+     */
+    public List<WatchEvent> getEvents() {
+        return Collections.unmodifiableList(events);
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    /**
+     * @return 比较的较新的快照
+     */
+    public WatchSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 转换为 {@link ListUtil#different(List, List)} 格式的映射表
+     * 修改的路径与之前相同，旧的文件信息属于 left，新的属于 right
+     *
+     * @return 差异映射表
+     */
+    public synchronized Map<ListUtil.ListDiffState, List<Stat>> toMap() {
+        if (map == null) {
+            final List<Stat> left = new ArrayList<>();
+            final List<Stat> right = new ArrayList<>();
+            final Set<String> changed = new HashSet<>();
+            for (WatchEvent event : events) {
+                if (event.getOldStat() != null) {
+                    left.add(event.getOldStat());
+                }
+                if (event.getNewStat() != null) {
+                    right.add(event.getNewStat());
+                }
+                changed.add(event.getPath());
+            }
+            final Map<ListUtil.ListDiffState, List<Stat>> result = new EnumMap<>(ListUtil.ListDiffState.class);
+            result.put(ListUtil.ListDiffState.left, left);
+            result.put(ListUtil.ListDiffState.right, right);
+            result.put(ListUtil.ListDiffState.common, new CommonList(snapshot, changed));
+            map = Collections.unmodifiableMap(result);
+        }
+        return map;
+    }
+
+    /**
+     * 公共元素列表，在第一次读取时才从快照中过滤出来
+     */
+    private static class CommonList extends AbstractList<Stat> {
+        private final WatchSnapshot snapshot;
+        private final Set<String> changed;
+        private List<Stat> list;
+
+        CommonList(WatchSnapshot snapshot, Set<String> changed) {
+            this.snapshot = snapshot;
+            this.changed = changed;
+        }
+
+        private synchronized List<Stat> list() {
+            if (list == null) {
+                final List<Stat> result = new ArrayList<>(snapshot.size());
+                for (Stat stat : snapshot.getStats()) {
+                    if (!changed.contains(stat.getPath())) {
+                        result.add(stat);
+                    }
+                }
+                list = result;
+            }
+            return list;
+        }
+
+        @Override
+        public Stat get(int index) {
+            return list().get(index);
+        }
+
+        @Override
+        public int size() {
+            return list().size();
+        }
+    }
+}
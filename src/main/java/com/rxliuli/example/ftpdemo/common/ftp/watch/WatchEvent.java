@@ -0,0 +1,59 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+
+/**
+ * 两次扫描之间一个路径上发生的变化
+ *
+ * @author rxliuli
+ */
+public class WatchEvent {
+    private final WatchEventType type;
+    private final Stat oldStat;
+    private final Stat newStat;
+
+    WatchEvent(WatchEventType type, Stat oldStat, Stat newStat) {
+        this.type = type;
+        this.oldStat = oldStat;
+        this.newStat = newStat;
+    }
+
+    public WatchEventType getType() {
+        return type;
+    }
+
+    /**
+     * @return 变化之前的文件信息，{@link WatchEventType#CREATED} 时为 null
+     */
+    public Stat getOldStat() {
+        return oldStat;
+    }
+
+    /**
+     * @return 变化之后的文件信息，{@link WatchEventType#DELETED} 时为 null
+     */
+    public Stat getNewStat() {
+        return newStat;
+    }
+
+    /**
+     * @return 发生变化的文件信息，删除时是删除之前的，其他情况是变化之后的
+     */
+    public Stat getStat() {
+        return newStat == null ? oldStat : newStat;
+    }
+
+    public String getPath() {
+        return getStat().getPath();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("WatchEvent{");
+        sb.append("type=").append(type);
+        sb.append(", oldStat=").append(oldStat);
+        sb.append(", newStat=").append(newStat);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+/**
+ * 监听事件的类型
+ *
+ * @author rxliuli
+ */
+public enum WatchEventType {
+    /**
+     * 新出现的文件/目录
+     */
+    CREATED,
+    /**
+     * 消失的文件/目录
+     */
+    DELETED,
+    /**
+     * 路径不变，但大小，修改时间等属性发生了变化
+     */
+    MODIFIED
+}
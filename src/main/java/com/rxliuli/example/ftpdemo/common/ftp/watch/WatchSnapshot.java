@@ -0,0 +1,133 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+
+import java.util.*;
+
+/**
+ * 一次扫描得到的目录树快照，以父目录与文件名为键
+ * 与 {@link com.rxliuli.example.ftpdemo.common.util.ListUtil#different(List, List)} 比较整个 {@link Stat} 不同，
+ * 这里按照路径对应，所以大小变化的文件只会产生一个 {@link WatchEventType#MODIFIED} 事件，而不是一删一增
+ *
+ * @author rxliuli
+ */
+public class WatchSnapshot {
+    /**
+     * 父目录 => 文件名 => 文件信息
+     * 按照父目录分组保存，同一个目录下的文件共享父目录字符串，不需要为每个文件拼接完整路径作为键
+     */
+    private final Map<String, Map<String, Stat>> dirs;
+    private final int size;
+
+    private WatchSnapshot(Map<String, Map<String, Stat>> dirs, int size) {
+        this.dirs = dirs;
+        this.size = size;
+    }
+
+    /**
+     * 根据扫描结果创建快照
+     *
+     * @param statList 扫描得到的所有文件/目录
+     * @return 快照
+     */
+    public static WatchSnapshot of(List<Stat> statList) {
+        final Map<String, Map<String, Stat>> dirs = new HashMap<>();
+        int size = 0;
+        for (Stat stat : statList) {
+            if (dirs.computeIfAbsent(stat.getParent(), k -> new HashMap<>()).put(stat.getName(), stat) == null) {
+                size++;
+            }
+        }
+        return new WatchSnapshot(dirs, size);
+    }
+
+    /**
+     * 与之后的一次快照比较
+     * 只遍历一次新的快照，同时统计旧快照中仍然存在的路径数量，全部存在时就不需要再遍历旧的快照寻找删除的路径。
+     * 没有变化时除了结果对象之外不分配任何内存，分配的内存与变化的数量成正比，而不是目录树的大小
+     *
+     * @param next 之后的快照
+     * @return 差异
+     */
+    public WatchDiff diff(WatchSnapshot next) {
+        List<WatchEvent> events = null;
+        int retained = 0;
+        for (Map.Entry<String, Map<String, Stat>> dir : next.dirs.entrySet()) {
+            final Map<String, Stat> oldChildren = dirs.getOrDefault(dir.getKey(), Collections.emptyMap());
+            for (Map.Entry<String, Stat> entry : dir.getValue().entrySet()) {
+                final Stat newStat = entry.getValue();
+                final Stat oldStat = oldChildren.get(entry.getKey());
+                if (oldStat == null) {
+                    events = add(events, new WatchEvent(WatchEventType.CREATED, null, newStat));
+                    continue;
+                }
+                retained++;
+                if (modified(oldStat, newStat)) {
+                    events = add(events, new WatchEvent(WatchEventType.MODIFIED, oldStat, newStat));
+                }
+            }
+        }
+        if (retained != size) {
+            for (Map.Entry<String, Map<String, Stat>> dir : dirs.entrySet()) {
+                final Map<String, Stat> newChildren = next.dirs.getOrDefault(dir.getKey(), Collections.emptyMap());
+                for (Map.Entry<String, Stat> entry : dir.getValue().entrySet()) {
+                    if (!newChildren.containsKey(entry.getKey())) {
+                        events = add(events, new WatchEvent(WatchEventType.DELETED, entry.getValue(), null));
+                    }
+                }
+            }
+        }
+        return new WatchDiff(events == null ? Collections.emptyList() : events, next);
+    }
+
+    /**
+     * 路径相同的两个文件信息是否发生了变化
+     * 路径已经通过键比较过了，所以只需要比较其他属性，避免 {@link Stat#equals(Object)} 中文件名与父目录的字符串比较
+     */
+    private static boolean modified(Stat oldStat, Stat newStat) {
+        return oldStat.length() != newStat.length() ||
+                oldStat.lastModified() != newStat.lastModified() ||
+                !Objects.equals(oldStat.getIsDir(), newStat.getIsDir()) ||
+                !Objects.equals(oldStat.getPermissions(), newStat.getPermissions());
+    }
+
+    private static List<WatchEvent> add(List<WatchEvent> events, WatchEvent event) {
+        final List<WatchEvent> result = events == null ? new ArrayList<>() : events;
+        result.add(event);
+        return result;
+    }
+
+    /**
+     * @param path 路径
+     * @return 路径对应的文件信息，不存在时为 null
+     */
+    public Stat get(String path) {
+        final String parent = PathUtil.SEPARATOR.equals(path) ? null : PathUtil.getParentDir(path);
+        final Map<String, Stat> children = dirs.get(parent);
+        return children == null ? null : children.get(PathUtil.getFileName(path));
+    }
+
+    /**
+     * @return 快照中的所有文件信息
+     */
+    public Collection<Stat> getStats() {
+        return new AbstractCollection<Stat>() {
+            @Override
+            public Iterator<Stat> iterator() {
+                return dirs.values().stream()
+                        .flatMap(children -> children.values().stream())
+                        .iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public int size() {
+        return size;
+    }
+}
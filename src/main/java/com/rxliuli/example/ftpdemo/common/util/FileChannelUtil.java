@@ -0,0 +1,64 @@
+package com.rxliuli.example.ftpdemo.common.util;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 基于 {@link FileChannel} 的本地文件读写工具类
+ * 返回的流都带有指定大小的缓冲区，传输文件时可以按照网络的情况调整
+ *
+ * @author rxliuli
+ */
+public class FileChannelUtil {
+    /**
+     * 默认的缓冲区大小
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * 打开一个读取本地文件的流
+     *
+     * @param file       本地文件
+     * @param bufferSize 缓冲区大小
+     * @return 输入流
+     * @throws FileNotFoundException 文件不存在或不可读
+     */
+    public static InputStream newInputStream(File file, int bufferSize) throws FileNotFoundException {
+        try {
+            return new BufferedInputStream(Channels.newInputStream(FileChannel.open(file.toPath(), StandardOpenOption.READ)), bufferSize);
+        } catch (IOException e) {
+            throw fileNotFound(file, e);
+        }
+    }
+
+    /**
+     * 打开一个写入本地文件的流
+     *
+     * @param file       本地文件
+     * @param append     是否追加到文件末尾，否则覆盖原有的内容
+     * @param bufferSize 缓冲区大小
+     * @return 输出流
+     * @throws FileNotFoundException 文件不可写
+     */
+    public static OutputStream newOutputStream(File file, boolean append, int bufferSize) throws FileNotFoundException {
+        final OpenOption mode = append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        try {
+            return new BufferedOutputStream(Channels.newOutputStream(FileChannel.open(file.toPath(),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)), bufferSize);
+        } catch (IOException e) {
+            throw fileNotFound(file, e);
+        }
+    }
+
+    /**
+     * 保持与 {@link FileInputStream}/{@link FileOutputStream} 相同的异常类型
+     */
+    private static FileNotFoundException fileNotFound(File file, IOException cause) {
+        final FileNotFoundException e = new FileNotFoundException(file + ": " + cause.getMessage());
+        e.initCause(cause);
+        return e;
+    }
+}
@@ -1,5 +1,8 @@
 package com.rxliuli.example.ftpdemo.common.util;
 
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * 线程相关工具类
  *
@@ -29,4 +32,20 @@ public class ThreadUtil {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * 创建守护线程的线程工厂，线程名为前缀加上从 1 开始的序号
+     * 守护线程不会阻止程序退出，所以忘记关闭线程池也不会导致程序无法结束
+     *
+     * @param prefix 线程名的前缀，例如 ftp-bulk-
+     * @return 线程工厂
+     */
+    public static ThreadFactory daemonThreadFactory(String prefix) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return r -> {
+            final Thread thread = new Thread(r, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
 }
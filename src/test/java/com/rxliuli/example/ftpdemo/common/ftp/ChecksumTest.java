@@ -0,0 +1,87 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class ChecksumTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void digest() {
+        final byte[] check = "123456789".getBytes(StandardCharsets.US_ASCII);
+        assertThat(VerifiedTransfer.hex(ChecksumAlgorithm.CRC32.newDigest().digest(check)))
+                .isEqualTo("cbf43926");
+        assertThat(VerifiedTransfer.hex(ChecksumAlgorithm.CRC32C.newDigest().digest(check)))
+                .isEqualTo("e3069283");
+        assertThat(VerifiedTransfer.hex(ChecksumAlgorithm.MD5.newDigest().digest(check)))
+                .isEqualTo("25f9e794323b453885f5181f1b624d0b");
+    }
+
+    @Test
+    public void putAndGet() throws IOException {
+        final byte[] data = CompressionTest.csv(10_000);
+        final String expected = VerifiedTransfer.hex(ChecksumAlgorithm.SHA256.newDigest().digest(data));
+        final MemoryFtpOperator ftp = new MemoryFtpOperator();
+
+        final TransferResult put = ftp.put(new ByteArrayInputStream(data), "/data/a.csv", true, ChecksumAlgorithm.SHA256);
+        assertThat(put.isSuccess())
+                .isTrue();
+        assertThat(put.getBytes())
+                .isEqualTo(data.length);
+        assertThat(put.getChecksum())
+                .isEqualTo(expected);
+        // 内存实现不支持服务器端校验
+        assertThat(put.isVerified())
+                .isFalse();
+
+        final File localFile = new File(temp.getRoot(), "a/a.csv");
+        final TransferResult get = ftp.get("/data/a.csv", localFile, ChecksumAlgorithm.SHA256);
+        assertThat(get.isSuccess())
+                .isTrue();
+        assertThat(get.getChecksum())
+                .isEqualTo(expected);
+        assertThat(Files.readAllBytes(localFile.toPath()))
+                .isEqualTo(data);
+
+        assertThat(ftp.get("/data/none.csv", localFile, ChecksumAlgorithm.SHA256).isSuccess())
+                .isFalse();
+    }
+
+    @Test
+    public void serverChecksum() {
+        final byte[] data = CompressionTest.csv(100);
+        final String[] server = {null};
+        final MemoryFtpOperator ftp = new MemoryFtpOperator() {
+            @Override
+            public String checksum(String remoteFilePath, ChecksumAlgorithm algorithm) {
+                return server[0];
+            }
+        };
+        server[0] = VerifiedTransfer.hex(ChecksumAlgorithm.MD5.newDigest().digest(data));
+        final TransferResult verified = ftp.put(new ByteArrayInputStream(data), "/a.csv", true, ChecksumAlgorithm.MD5);
+        assertThat(verified.isSuccess())
+                .isTrue();
+        assertThat(verified.isVerified())
+                .isTrue();
+
+        server[0] = "00000000000000000000000000000000";
+        final TransferResult mismatch = ftp.put(new ByteArrayInputStream(data), "/a.csv", true, ChecksumAlgorithm.MD5);
+        assertThat(mismatch.isSuccess())
+                .isFalse();
+        assertThat(mismatch.isVerified())
+                .isFalse();
+    }
+}
@@ -0,0 +1,81 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较不同压缩格式的吞吐量以及节省的字节数
+ * 数据是 CSV 格式的文本，{@code compress} 模拟上传时的压缩，{@code decompress} 模拟下载时的解压，
+ * 辅助计数器 {@link Bytes#sourceBytes} 与 {@link Bytes#wireBytes} 分别是每秒处理的原始字节数与在网络上传输的字节数，两者之比即为压缩率
+ *
+ * @author rxliuli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CompressionBenchmark {
+    @Param({"NONE", "DEFLATE", "GZIP"})
+    private Compression compression;
+
+    private byte[] data;
+    private byte[] compressed;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long sourceBytes;
+        public long wireBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            sourceBytes = 0;
+            wireBytes = 0;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        data = CompressionTest.csv(200_000);
+        compressed = IOUtils.toByteArray(compression.compress(new ByteArrayInputStream(data)));
+    }
+
+    @Benchmark
+    public long compress(Bytes bytes) throws IOException {
+        final long wire = drain(compression.compress(new ByteArrayInputStream(data)));
+        bytes.sourceBytes += data.length;
+        bytes.wireBytes += wire;
+        return wire;
+    }
+
+    @Benchmark
+    public long decompress(Bytes bytes) throws IOException {
+        final long source = drain(compression.decompress(new ByteArrayInputStream(compressed)));
+        bytes.sourceBytes += source;
+        bytes.wireBytes += compressed.length;
+        return source;
+    }
+
+    private long drain(InputStream is) throws IOException {
+        try (InputStream in = is) {
+            return IOUtils.copyLarge(in, NullOutputStream.NULL_OUTPUT_STREAM, new byte[64 * 1024]);
+        }
+    }
+}
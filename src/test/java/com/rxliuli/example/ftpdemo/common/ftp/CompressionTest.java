@@ -0,0 +1,74 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author rxliuli
+ */
+public class CompressionTest {
+    private final byte[] data = csv(10_000);
+
+    @Test
+    public void gzip() throws IOException {
+        final byte[] compressed = IOUtils.toByteArray(Compression.GZIP.compress(new ByteArrayInputStream(data)));
+        assertThat(compressed.length)
+                .isLessThan(data.length / 4);
+        // 可以被标准的 gzip 实现解压
+        assertThat(IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))))
+                .isEqualTo(data);
+    }
+
+    @Test
+    public void putAndGet() {
+        final MemoryFtpOperator ftp = new MemoryFtpOperator();
+        for (Compression compression : Compression.values()) {
+            final String path = "/data/" + compression + ".csv";
+            assertThat(ftp.put(new ByteArrayInputStream(data), path, true, compression))
+                    .isTrue();
+            assertThat(ftp.get(path, compression, this::toByteArray))
+                    .isEqualTo(data);
+        }
+    }
+
+    @Test
+    public void closeAfterGet() {
+        final MemoryFtpOperator ftp = new MemoryFtpOperator();
+        for (Compression compression : new Compression[]{Compression.DEFLATE, Compression.GZIP}) {
+            final String path = "/data/" + compression + ".csv";
+            ftp.put(new ByteArrayInputStream(data), path, true, compression);
+            // 操作完成后解压的流已经关闭，解压器占用的本地内存已经释放
+            final InputStream decompressed = ftp.get(path, compression, is -> is);
+            assertThatThrownBy(decompressed::read)
+                    .isInstanceOf(IOException.class);
+        }
+    }
+
+    static byte[] csv(int rows) {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        for (int i = 0; i < rows; i++) {
+            final String row = i + ",user" + (i % 100) + ",2019-01-" + (i % 28 + 1) + "," + (i * 31 % 1000) + "\n";
+            os.write(row.getBytes(StandardCharsets.UTF_8), 0, row.length());
+        }
+        return os.toByteArray();
+    }
+
+    private byte[] toByteArray(InputStream is) {
+        try {
+            return IOUtils.toByteArray(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
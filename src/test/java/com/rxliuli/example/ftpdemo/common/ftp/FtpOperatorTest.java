@@ -0,0 +1,259 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 测试 {@link FtpOperator} 中的默认方法
+ *
+ * @author rxliuli
+ */
+public class FtpOperatorTest {
+    private final MemoryFtpOperator ftp = new MemoryFtpOperator().tree("/root", 3, 4);
+
+    @Rule
+    public final TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void lsRParallel() {
+        // 并行获取的结果与串行获取的完全一致
+        final List<Stat> sequential = ftp.lsR("/root");
+        assertThat(ftp.lsR("/root", 8))
+                .hasSize(4 + 16 + 64 + 4 + 16 + 64)
+                .isEqualTo(sequential);
+    }
+
+    @Test
+    public void lsRStream() {
+        // 惰性获取的结果与 lsR 完全一致
+        assertThat(ftp.lsRStream("/root").collect(Collectors.toList()))
+                .isEqualTo(ftp.lsR("/root"));
+        // 找到第一个结果后就不再继续列出目录
+        ftp.resetCalls();
+        final Optional<Stat> first = ftp.lsRStream("/root")
+                .filter(stat -> !stat.getIsDir())
+                .findFirst();
+        assertThat(first.map(Stat::getPath))
+                .contains("/root/dir0/dir0/file0.txt");
+        // 只列出了 /root, /root/dir0, /root/dir0/dir0 以及它下面的 4 个空目录
+        assertThat(ftp.getCalls())
+                .isEqualTo(7);
+    }
+
+    @Test
+    public void getSegmented() throws IOException {
+        final byte[] data = new byte[(int) (SegmentedDownloader.MIN_SEGMENT_SIZE * 3 + 123)];
+        new Random(0).nextBytes(data);
+        ftp.put(new ByteArrayInputStream(data), "/root/big.bin");
+        ftp.resetCalls();
+        final File localFile = new File(temp.getRoot(), "local/big.bin");
+        assertThat(ftp.get("/root/big.bin", localFile, 8))
+                .isTrue();
+        assertThat(FileUtils.readFileToByteArray(localFile))
+                .isEqualTo(data);
+        // 一次 stat 以及 3 段下载
+        assertThat(ftp.getCalls())
+                .isEqualTo(1 + 3);
+        assertThat(ftp.get("/root/none.bin", localFile, 8))
+                .isFalse();
+    }
+
+    @Test
+    public void putResumable() throws IOException {
+        final byte[] data = new byte[100_000];
+        new Random(0).nextBytes(data);
+        final File localFile = temp.newFile("upload.bin");
+        FileUtils.writeByteArrayToFile(localFile, data);
+        // 第一次上传只写入了一半就失败了
+        final AtomicBoolean fail = new AtomicBoolean(true);
+        final MemoryFtpOperator ftp = new MemoryFtpOperator() {
+            @Override
+            public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir) {
+                if (fail.getAndSet(false)) {
+                    super.put(new ByteArrayInputStream(Arrays.copyOf(data, data.length / 2)), remoteFilePath, isCreateDir);
+                    return false;
+                }
+                return super.put(localIs, remoteFilePath, isCreateDir);
+            }
+        };
+        assertThat(ftp.putResumable(localFile, "/upload/upload.bin"))
+                .isFalse();
+        assertThat(ResumableTransfer.checkpointFile(localFile))
+                .exists();
+        assertThat(ftp.putResumable(localFile, "/upload/upload.bin"))
+                .isTrue();
+        assertThat(ftp.get("/upload/upload.bin", (Function<InputStream, byte[]>) this::toByteArray))
+                .isEqualTo(data);
+        assertThat(ResumableTransfer.checkpointFile(localFile))
+                .doesNotExist();
+    }
+
+    @Test
+    public void getResumable() throws IOException {
+        final byte[] data = new byte[100_000];
+        new Random(0).nextBytes(data);
+        // 第一次下载读取了一半之后连接断开
+        final AtomicBoolean fail = new AtomicBoolean(true);
+        final MemoryFtpOperator ftp = new MemoryFtpOperator() {
+            @Override
+            public <R> R get(String remoteFilePath, long offset, Function<InputStream, R> action) {
+                if (!fail.getAndSet(false)) {
+                    return super.get(remoteFilePath, offset, action);
+                }
+                return super.get(remoteFilePath, offset, is -> action.apply(new FilterInputStream(is) {
+                    private int remaining = data.length / 2;
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        if (remaining <= 0) {
+                            throw new IOException("Connection reset");
+                        }
+                        final int read = super.read(b, off, Math.min(len, remaining));
+                        remaining -= read;
+                        return read;
+                    }
+                }));
+            }
+        };
+        ftp.put(new ByteArrayInputStream(data), "/download.bin");
+        final File localFile = new File(temp.getRoot(), "download.bin");
+        assertThat(ftp.getResumable("/download.bin", localFile))
+                .isFalse();
+        assertThat(localFile.length())
+                .isEqualTo(data.length / 2);
+        assertThat(ftp.getResumable("/download.bin", localFile))
+                .isTrue();
+        assertThat(FileUtils.readFileToByteArray(localFile))
+                .isEqualTo(data);
+        assertThat(ResumableTransfer.checkpointFile(localFile))
+                .doesNotExist();
+    }
+
+    @Test
+    public void getResumableWithoutRest() throws IOException {
+        final byte[] data = new byte[100_000];
+        new Random(0).nextBytes(data);
+        // 服务器拒绝从偏移量开始下载，第一次下载读取了一半之后连接断开
+        final AtomicBoolean fail = new AtomicBoolean(true);
+        final MemoryFtpOperator ftp = new MemoryFtpOperator() {
+            @Override
+            public <R> R get(String remoteFilePath, long offset, Function<InputStream, R> action) {
+                if (offset > 0) {
+                    return action.apply(null);
+                }
+                if (!fail.getAndSet(false)) {
+                    return super.get(remoteFilePath, offset, action);
+                }
+                return super.get(remoteFilePath, offset, is -> action.apply(new BoundedInputStream(is, data.length / 2) {
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        final int read = super.read(b, off, len);
+                        if (read < 0) {
+                            throw new IOException("Connection reset");
+                        }
+                        return read;
+                    }
+                }));
+            }
+        };
+        ftp.put(new ByteArrayInputStream(data), "/download.bin");
+        final File localFile = new File(temp.getRoot(), "download.bin");
+        assertThat(ftp.getResumable("/download.bin", localFile))
+                .isFalse();
+        assertThat(localFile.length())
+                .isEqualTo(data.length / 2);
+        // 续传被拒绝时清空本地文件从头下载
+        assertThat(ftp.getResumable("/download.bin", localFile))
+                .isTrue();
+        assertThat(FileUtils.readFileToByteArray(localFile))
+                .isEqualTo(data);
+        assertThat(ResumableTransfer.checkpointFile(localFile))
+                .doesNotExist();
+    }
+
+    @Test
+    public void mirror() throws IOException {
+        final File localDir = temp.newFolder("mirror");
+        FileUtils.writeByteArrayToFile(new File(localDir, "a/1.txt"), new byte[1]);
+        FileUtils.writeByteArrayToFile(new File(localDir, "a/b/2.txt"), new byte[2]);
+        FileUtils.writeByteArrayToFile(new File(localDir, "3.txt"), new byte[3]);
+        final MirrorResult up = ftp.mirrorUp(localDir, "/backup");
+        assertThat(up.isSuccess())
+                .isTrue();
+        assertThat(up.getFiles())
+                .isEqualTo(3);
+        assertThat(up.getBytes())
+                .isEqualTo(6);
+        assertThat(up.getDirs())
+                .isEqualTo(2);
+        // 没有变化的文件不会再次上传
+        assertThat(ftp.mirrorUp(localDir, "/backup").getSkipped())
+                .isEqualTo(3);
+        // 只上传变化的文件，并删除远程多余的文件
+        FileUtils.writeByteArrayToFile(new File(localDir, "3.txt"), new byte[4]);
+        ftp.put(new ByteArrayInputStream(new byte[5]), "/backup/x/extra.txt");
+        final MirrorResult sync = ftp.mirrorUp(localDir, "/backup", 2, true);
+        assertThat(sync.getFiles())
+                .isEqualTo(1);
+        assertThat(sync.getDeleted())
+                .isEqualTo(1);
+        assertThat(ftp.exist("/backup/x"))
+                .isFalse();
+        final File downDir = new File(temp.getRoot(), "down");
+        final MirrorResult down = ftp.mirrorDown("/backup", downDir);
+        assertThat(down.getFiles())
+                .isEqualTo(3);
+        assertThat(down.getBytes())
+                .isEqualTo(7);
+        assertThat(new File(downDir, "a/b/2.txt"))
+                .hasSameContentAs(new File(localDir, "a/b/2.txt"));
+    }
+
+    @Test
+    public void putAllAndGetAll() throws IOException {
+        final Map<File, String> uploads = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            final File file = temp.newFile("bulk" + i + ".txt");
+            FileUtils.writeByteArrayToFile(file, new byte[i]);
+            uploads.put(file, "/bulk/bulk" + i + ".txt");
+        }
+        final BulkTransfer<File> put = ftp.putAll(uploads);
+        assertThat(put.getAll().join())
+                .isTrue();
+        assertThat(put.getItems())
+                .hasSize(10);
+        final Map<String, File> downloads = new LinkedHashMap<>();
+        downloads.put("/bulk/bulk3.txt", new File(temp.getRoot(), "down/bulk3.txt"));
+        downloads.put("/bulk/none.txt", new File(temp.getRoot(), "down/none.txt"));
+        final BulkTransfer<String> get = ftp.getAll(downloads);
+        // 单个文件失败时汇总结果为 false
+        assertThat(get.getAll().join())
+                .isFalse();
+        assertThat(get.get("/bulk/bulk3.txt").join())
+                .isTrue();
+        assertThat(get.get("/bulk/none.txt").join())
+                .isFalse();
+        assertThat(new File(temp.getRoot(), "down/bulk3.txt").length())
+                .isEqualTo(3);
+    }
+
+    private byte[] toByteArray(InputStream is) {
+        try {
+            return IOUtils.toByteArray(is);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class KnownDirCacheTest {
+    private final MemoryFtpOperator memory = new MemoryFtpOperator().tree("/root", 1, 1);
+    private final KnownDirCache knownDirs = new KnownDirCache();
+
+    @Test
+    public void mkdirR() {
+        assertThat(knownDirs.mkdirR(memory, "/root/a/b"))
+                .isTrue();
+        assertThat(memory.exist("/root/a/b"))
+                .isTrue();
+        // 已知的前缀不再检查，只创建缺失的部分
+        memory.resetCalls();
+        assertThat(knownDirs.mkdirR(memory, "/root/a/b/c/d"))
+                .isTrue();
+        assertThat(memory.getCalls())
+                .isEqualTo(3);
+        memory.resetCalls();
+        assertThat(knownDirs.mkdirR(memory, "/root/a/b/c"))
+                .isTrue();
+        assertThat(memory.getCalls())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void invalidate() {
+        knownDirs.mkdirR(memory, "/root/a/b");
+        knownDirs.invalidate("/root/a");
+        assertThat(knownDirs.contains("/root/a/b"))
+                .isFalse();
+        assertThat(knownDirs.contains("/root"))
+                .isTrue();
+        memory.rmdir("/root/a/b");
+        memory.rmdir("/root/a");
+        assertThat(knownDirs.mkdirR(memory, "/root/a/b"))
+                .isTrue();
+        assertThat(memory.exist("/root/a/b"))
+                .isTrue();
+    }
+}
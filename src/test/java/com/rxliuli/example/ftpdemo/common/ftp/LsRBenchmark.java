@@ -0,0 +1,53 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较串行与并行递归获取文件信息的耗时
+ * 使用模拟了网络延迟的 {@link MemoryFtpOperator}，目录树的每一层都包含 {@link #width} 个目录
+ *
+ * @author rxliuli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LsRBenchmark {
+    @Param({"4"})
+    private int depth;
+    @Param({"6"})
+    private int width;
+    @Param({"4", "16"})
+    private int parallelism;
+
+    private FtpOperator ftp;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LsRBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        ftp = new MemoryFtpOperator(1).tree("/root", depth, width);
+    }
+
+    @Benchmark
+    public List<Stat> sequential() {
+        return ftp.lsR("/root");
+    }
+
+    @Benchmark
+    public List<Stat> parallel() {
+        return ftp.lsR("/root", parallelism);
+    }
+}
@@ -0,0 +1,284 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import com.rxliuli.example.ftpdemo.common.util.PathUtil;
+import com.rxliuli.example.ftpdemo.common.util.ThreadUtil;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.getFileName;
+import static com.rxliuli.example.ftpdemo.common.util.PathUtil.getParentDir;
+
+/**
+ * 基于内存的 ftp 操作对象，用于测试与基准测试
+ * 每次操作都会暂停 {@link #latencyMillis} 毫秒，用于模拟网络往返的延迟
+ *
+ * @author rxliuli
+ */
+public class MemoryFtpOperator implements FtpOperator {
+    /**
+     * 文件内容，目录的内容为 null
+     */
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    /**
+     * 目录下的子节点名称
+     */
+    private final Map<String, NavigableSet<String>> dirs = new ConcurrentHashMap<>();
+    /**
+     * 远程操作的调用次数
+     */
+    private final AtomicInteger calls = new AtomicInteger();
+    /**
+     * 修改时间，只有调用 {@link #trackMtime()} 之后才会记录，使用逻辑时钟保证每次修改的时间都不同
+     * 与大多数服务器相同，目录的修改时间只在其中的条目增删时更新
+     */
+    private final Map<String, Long> mtimes = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private volatile boolean trackMtime;
+    private final long latencyMillis;
+    /**
+     * 设置之后每次操作都会等待其他操作到达屏障，用于证明多个操作是并发执行的
+     */
+    private volatile CyclicBarrier barrier;
+    /**
+     * 执行过操作的线程名
+     */
+    private final Set<String> callThreads = ConcurrentHashMap.newKeySet();
+
+    public MemoryFtpOperator(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+        dirs.put(PathUtil.SEPARATOR, new ConcurrentSkipListSet<>());
+    }
+
+    public MemoryFtpOperator() {
+        this(0);
+    }
+
+    /**
+     * 生成一棵每层有 {@param width} 个目录以及 {@param width} 个文件的目录树
+     *
+     * @param root  根目录
+     * @param depth 深度
+     * @param width 每层的宽度
+     * @return 当前对象
+     */
+    public MemoryFtpOperator tree(String root, int depth, int width) {
+        createDir(root);
+        if (depth == 0) {
+            return this;
+        }
+        for (int i = 0; i < width; i++) {
+            createFile(PathUtil.join(root, "file" + i + ".txt"), new byte[i]);
+            tree(PathUtil.join(root, "dir" + i), depth - 1, width);
+        }
+        return this;
+    }
+
+    /**
+     * 开始记录修改时间
+     *
+     * @return 当前对象
+     */
+    public MemoryFtpOperator trackMtime() {
+        trackMtime = true;
+        return this;
+    }
+
+    private void touch(String path) {
+        if (trackMtime) {
+            mtimes.put(path, clock.incrementAndGet());
+        }
+    }
+
+    /**
+     * 设置每次操作都需要等待的屏障，为 null 时不等待
+     * 如果操作不是并发执行的，屏障将在超时之后损坏，操作抛出异常
+     *
+     * @param barrier 屏障
+     * @return 当前对象
+     */
+    public MemoryFtpOperator setBarrier(CyclicBarrier barrier) {
+        this.barrier = barrier;
+        return this;
+    }
+
+    public Set<String> getCallThreads() {
+        return callThreads;
+    }
+
+    public int getCalls() {
+        return calls.get();
+    }
+
+    public void resetCalls() {
+        calls.set(0);
+    }
+
+    private void call() {
+        calls.incrementAndGet();
+        callThreads.add(Thread.currentThread().getName());
+        final CyclicBarrier b = barrier;
+        if (b != null) {
+            try {
+                b.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (latencyMillis > 0) {
+            ThreadUtil.sleep(latencyMillis);
+        }
+    }
+
+    private void createDir(String path) {
+        if (dirs.putIfAbsent(path, new ConcurrentSkipListSet<>()) == null && !PathUtil.SEPARATOR.equals(path)) {
+            touch(path);
+            if (dirs.get(getParentDir(path)).add(getFileName(path))) {
+                touch(getParentDir(path));
+            }
+        }
+    }
+
+    private void createFile(String path, byte[] data) {
+        files.put(path, data);
+        touch(path);
+        if (dirs.get(getParentDir(path)).add(getFileName(path))) {
+            touch(getParentDir(path));
+        }
+    }
+
+    @Override
+    public boolean put(InputStream localIs, String remoteFilePath, boolean isCreateDir) {
+        if (isCreateDir) {
+            mkdirR(getParentDir(remoteFilePath));
+        }
+        call();
+        if (!dirs.containsKey(getParentDir(remoteFilePath))) {
+            return false;
+        }
+        try (InputStream is = localIs) {
+            createFile(remoteFilePath, IOUtils.toByteArray(is));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean append(InputStream localIs, String remoteFilePath) {
+        call();
+        if (!dirs.containsKey(getParentDir(remoteFilePath))) {
+            return false;
+        }
+        try (InputStream is = localIs) {
+            final byte[] old = files.getOrDefault(remoteFilePath, new byte[0]);
+            final byte[] data = IOUtils.toByteArray(is);
+            final byte[] result = Arrays.copyOf(old, old.length + data.length);
+            System.arraycopy(data, 0, result, old.length, data.length);
+            createFile(remoteFilePath, result);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean get(String remoteFilePath, File localFile, boolean isCreateFile) {
+        call();
+        final byte[] data = files.get(remoteFilePath);
+        if (data == null) {
+            return false;
+        }
+        try {
+            FileUtils.writeByteArrayToFile(localFile, data);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public <R> R get(String remoteFilePath, Function<InputStream, R> action) {
+        call();
+        final byte[] data = files.get(remoteFilePath);
+        return action.apply(data == null ? null : new ByteArrayInputStream(data));
+    }
+
+    @Override
+    public boolean mkdir(String path) {
+        call();
+        if (dirs.containsKey(path)) {
+            return true;
+        }
+        if (!dirs.containsKey(getParentDir(path)) || files.containsKey(path)) {
+            return false;
+        }
+        createDir(path);
+        return true;
+    }
+
+    @Override
+    public boolean rm(String path) {
+        call();
+        if (files.remove(path) == null) {
+            return false;
+        }
+        dirs.get(getParentDir(path)).remove(getFileName(path));
+        touch(getParentDir(path));
+        return true;
+    }
+
+    @Override
+    public boolean rmdir(String path) {
+        call();
+        final NavigableSet<String> children = dirs.get(path);
+        if (children == null || !children.isEmpty()) {
+            return false;
+        }
+        dirs.remove(path);
+        dirs.get(getParentDir(path)).remove(getFileName(path));
+        touch(getParentDir(path));
+        return true;
+    }
+
+    @Override
+    public List<Stat> ls(String path) {
+        call();
+        final NavigableSet<String> children = dirs.get(path);
+        if (children == null) {
+            throw new RuntimeException("No such directory: " + path);
+        }
+        return children.stream()
+                .map(name -> {
+                    final String child = PathUtil.join(path, name);
+                    final byte[] data = files.get(child);
+                    return Stat.child(path, name, data == null, data == null ? 0L : data.length, mtimes.get(child), null);
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean exist(String path) {
+        call();
+        return dirs.containsKey(path) || files.containsKey(path);
+    }
+}
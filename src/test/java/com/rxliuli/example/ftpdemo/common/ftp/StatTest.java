@@ -0,0 +1,149 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class StatTest {
+    @Test
+    public void constructor() {
+        final Stat stat = new Stat("a.txt", "/data/a.txt", false, 10L);
+        assertThat(stat.getName())
+                .isEqualTo("a.txt");
+        assertThat(stat.getPath())
+                .isEqualTo("/data/a.txt");
+        assertThat(stat.getParent())
+                .isEqualTo("/data");
+        assertThat(stat.getIsDir())
+                .isFalse();
+        assertThat(stat.getSize())
+                .isEqualTo(10L);
+        assertThat(stat.getMtime())
+                .isNull();
+        assertThat(stat.getPermissions())
+                .isNull();
+
+        final Stat full = new Stat("dir", "/data/dir", true, 0L, 1000L, "rwxr-xr-x");
+        assertThat(full.getIsDir())
+                .isTrue();
+        assertThat(full.isDirectory())
+                .isTrue();
+        assertThat(full.getMtime())
+                .isEqualTo(1000L);
+        assertThat(full.getPermissions())
+                .isEqualTo("rwxr-xr-x");
+
+        //文件名与路径相互独立，与最初的实现相同
+        final Stat mismatch = new Stat("b.txt", "/data/a.txt", false, 1L);
+        assertThat(mismatch.getName())
+                .isEqualTo("b.txt");
+        assertThat(mismatch.getPath())
+                .isEqualTo("/data/a.txt");
+        assertThat(mismatch)
+                .isNotEqualTo(new Stat("b.txt", "/data/b.txt", false, 1L))
+                .isNotEqualTo(Stat.child("/data", "b.txt", false, 1L, null, null));
+    }
+
+    @Test
+    public void child() {
+        final Stat stat = Stat.child("/data/", "a.txt", false, 10L, null, null);
+        assertThat(stat.getParent())
+                .isEqualTo("/data");
+        assertThat(stat.getPath())
+                .isEqualTo("/data/a.txt");
+        assertThat(Stat.child("/", "a.txt", false, 0, null, null).getPath())
+                .isEqualTo("/a.txt");
+
+        //与通过路径创建的文件信息相等
+        final Stat byPath = new Stat("a.txt", "/data/a.txt", false, 10L);
+        assertThat(stat)
+                .isEqualTo(byPath);
+        assertThat(stat.hashCode())
+                .isEqualTo(byPath.hashCode());
+
+        //同一个目录下的文件信息使用父目录与文件名比较
+        final Stat same = Stat.child("/data", "a.txt", false, 10L, null, null);
+        assertThat(stat)
+                .isEqualTo(same)
+                .isNotEqualTo(Stat.child("/data", "b.txt", false, 10L, null, null))
+                .isNotEqualTo(Stat.child("/other", "a.txt", false, 10L, null, null));
+        assertThat(stat.hashCode())
+                .isEqualTo(same.hashCode());
+    }
+
+    @Test
+    public void root() {
+        final Stat root = new Stat("", "/", true, 0L);
+        assertThat(root.getPath())
+                .isEqualTo("/");
+        assertThat(root.getParent())
+                .isNull();
+        assertThat(root.getName())
+                .isEmpty();
+    }
+
+    @Test
+    public void setters() {
+        final Stat stat = Stat.child("/data", "a.txt", false, 10L, 1000L, null);
+        final int hash = stat.hashCode();
+
+        stat.setName("b.txt");
+        assertThat(stat.getName())
+                .isEqualTo("b.txt");
+        assertThat(stat.getPath())
+                .isEqualTo("/data/a.txt");
+        assertThat(stat.hashCode())
+                .isNotEqualTo(hash);
+
+        stat.setPath("/other/c.txt");
+        assertThat(stat.getPath())
+                .isEqualTo("/other/c.txt");
+        assertThat(stat.getParent())
+                .isEqualTo("/other");
+        assertThat(stat.getName())
+                .isEqualTo("b.txt");
+
+        final Stat same = new Stat("b.txt", "/other/c.txt", false, 10L).setMtime(1000L);
+        assertThat(stat)
+                .isEqualTo(same);
+        assertThat(stat.hashCode())
+                .isEqualTo(same.hashCode());
+        same.setSize(11L);
+        assertThat(stat)
+                .isNotEqualTo(same);
+        assertThat(stat.hashCode())
+                .isNotEqualTo(same.hashCode());
+    }
+
+    @Test
+    public void nullFlags() {
+        final Stat stat = new Stat();
+        assertThat(stat.getPath())
+                .isNull();
+        assertThat(stat.getIsDir())
+                .isNull();
+        assertThat(stat.isDirectory())
+                .isFalse();
+        assertThat(stat.getSize())
+                .isNull();
+        assertThat(stat.length())
+                .isZero();
+        assertThat(stat.getMtime())
+                .isNull();
+        assertThat(stat.lastModified())
+                .isZero();
+
+        //null 与 0/false 不相等
+        final Stat zero = new Stat().setIsDir(false).setSize(0L).setMtime(0L);
+        assertThat(stat)
+                .isNotEqualTo(zero);
+        zero.setIsDir(null).setSize(null).setMtime(null);
+        assertThat(stat)
+                .isEqualTo(zero);
+        assertThat(stat.hashCode())
+                .isEqualTo(zero.hashCode());
+    }
+}
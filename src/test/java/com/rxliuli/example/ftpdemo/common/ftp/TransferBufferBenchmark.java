@@ -0,0 +1,127 @@
+package com.rxliuli.example.ftpdemo.common.ftp;
+
+import com.rxliuli.example.ftpdemo.common.util.FileChannelUtil;
+import org.apache.commons.net.io.Util;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较不同缓冲区大小下上传文件的吞吐量
+ * 按照 {@link org.apache.commons.net.ftp.FTPClient} 存储文件的方式，将本地文件复制到一个本机回环的数据连接上，
+ * 对端只负责读取并丢弃数据。回环网络没有真实的往返延迟，所以套接字缓冲区的效果需要在真实的网络上确认
+ *
+ * @author rxliuli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TransferBufferBenchmark {
+    private static final int FILE_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * 复制时的缓冲区大小，1024 是 FTPClient 的默认值
+     */
+    @Param({"1024", "65536", "262144", "1048576"})
+    private int bufferSize;
+    /**
+     * 数据连接的套接字缓冲区大小，0 表示使用操作系统的默认值
+     */
+    @Param({"0", "4194304"})
+    private int socketBufferSize;
+
+    private File file;
+    private ServerSocket server;
+    private Thread drain;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TransferBufferBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("transfer", ".bin");
+        final byte[] data = new byte[FILE_SIZE];
+        new Random(0).nextBytes(data);
+        Files.write(file.toPath(), data);
+        server = new ServerSocket();
+        if (socketBufferSize > 0) {
+            server.setReceiveBufferSize(socketBufferSize);
+        }
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        drain = new Thread(this::drain, "drain");
+        drain.setDaemon(true);
+        drain.start();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+        Files.deleteIfExists(file.toPath());
+    }
+
+    /**
+     * 修改前的方式：{@link FileInputStream} 读取本地文件
+     */
+    @Benchmark
+    public long fileInputStream() throws IOException {
+        try (InputStream is = new FileInputStream(file)) {
+            return send(is);
+        }
+    }
+
+    /**
+     * 修改后的方式：带缓冲区的 {@link java.nio.channels.FileChannel} 读取本地文件
+     */
+    @Benchmark
+    public long fileChannel() throws IOException {
+        try (InputStream is = FileChannelUtil.newInputStream(file, bufferSize)) {
+            return send(is);
+        }
+    }
+
+    private long send(InputStream is) throws IOException {
+        try (Socket socket = new Socket()) {
+            if (socketBufferSize > 0) {
+                socket.setSendBufferSize(socketBufferSize);
+            }
+            socket.connect(server.getLocalSocketAddress());
+            final OutputStream os = new BufferedOutputStream(socket.getOutputStream(), bufferSize);
+            final long count = Util.copyStream(is, os, bufferSize);
+            os.flush();
+            socket.shutdownOutput();
+            //等待对端读取完所有数据
+            //noinspection ResultOfMethodCallIgnored
+            socket.getInputStream().read();
+            return count;
+        }
+    }
+
+    private void drain() {
+        final byte[] buffer = new byte[1024 * 1024];
+        while (!server.isClosed()) {
+            try (Socket socket = server.accept(); InputStream is = socket.getInputStream()) {
+                //noinspection StatementWithEmptyBody
+                while (is.read(buffer) >= 0) {
+                }
+            } catch (IOException e) {
+                //服务器已经关闭
+            }
+        }
+    }
+}
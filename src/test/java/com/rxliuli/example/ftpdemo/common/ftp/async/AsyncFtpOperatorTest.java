@@ -0,0 +1,37 @@
+package com.rxliuli.example.ftpdemo.common.ftp.async;
+
+import com.rxliuli.example.ftpdemo.common.ftp.MemoryFtpOperator;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class AsyncFtpOperatorTest {
+    @Test
+    public void async() {
+        final MemoryFtpOperator memory = new MemoryFtpOperator().tree("/root", 1, 4);
+        try (AsyncFtpOperator ftp = AsyncFtpOperator.of(memory, 4)) {
+            // 每个操作都要等到四个操作同时执行才能继续，如果在调用线程中执行或者串行执行，屏障将超时并且操作失败
+            memory.setBarrier(new CyclicBarrier(4));
+            final CompletableFuture<?>[] futures = {
+                    ftp.exist("/root/file0.txt"),
+                    ftp.ls("/root"),
+                    ftp.mkdir("/root/new"),
+                    ftp.rm("/root/file1.txt"),
+            };
+            CompletableFuture.allOf(futures).join();
+            // 四个操作在不同的 io 线程中并发执行
+            assertThat(memory.getCallThreads())
+                    .hasSize(4)
+                    .allMatch(name -> name.startsWith("ftp-async-"));
+            memory.setBarrier(null);
+            assertThat(ftp.exist("/root/new").join())
+                    .isTrue();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.rxliuli.example.ftpdemo.common.ftp.cache;
+
+import com.rxliuli.example.ftpdemo.common.ftp.MemoryFtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.util.ThreadUtil;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @author rxliuli
+ */
+public class CachingFtpOperatorTest {
+    private final MemoryFtpOperator memory = new MemoryFtpOperator().tree("/root", 2, 2);
+
+    @Test
+    public void cache() {
+        final CachingFtpOperator ftp = new CachingFtpOperator(memory, 1, TimeUnit.MINUTES, 100);
+        ftp.ls("/root");
+        ftp.ls("/root");
+        ftp.exist("/root/file0.txt");
+        ftp.exist("/root/file0.txt");
+        assertThat(memory.getCalls())
+                .isEqualTo(2);
+        assertThat(ftp.getHitCount())
+                .isEqualTo(2);
+        assertThat(ftp.getMissCount())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void invalidate() {
+        final CachingFtpOperator ftp = new CachingFtpOperator(memory, 1, TimeUnit.MINUTES, 100);
+        assertThat(ftp.exist("/root/new/test.txt"))
+                .isFalse();
+        assertThat(ftp.ls("/root"))
+                .hasSize(4);
+        // 上传会使文件以及所有父目录的缓存失效
+        ftp.put(new ByteArrayInputStream(new byte[1]), "/root/new/test.txt");
+        assertThat(ftp.exist("/root/new/test.txt"))
+                .isTrue();
+        assertThat(ftp.ls("/root"))
+                .hasSize(5);
+        // 递归删除会使整个子树的缓存失效
+        assertThat(ftp.ls("/root/new"))
+                .hasSize(1);
+        assertThat(ftp.rmdirR("/root/new"))
+                .isTrue();
+        assertThat(ftp.exist("/root/new/test.txt"))
+                .isFalse();
+        assertThat(ftp.ls("/root"))
+                .hasSize(4);
+    }
+
+    @Test
+    public void concurrentInvalidate() throws Exception {
+        final CountDownLatch listing = new CountDownLatch(1);
+        final CountDownLatch written = new CountDownLatch(1);
+        final MemoryFtpOperator slow = new MemoryFtpOperator() {
+            @Override
+            public List<Stat> ls(String path) {
+                final List<Stat> ls = super.ls(path);
+                if (listing.getCount() > 0) {
+                    listing.countDown();
+                    try {
+                        written.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return ls;
+            }
+        };
+        slow.mkdirR("/slow");
+        final CachingFtpOperator ftp = new CachingFtpOperator(slow, 1, TimeUnit.MINUTES, 100);
+        final CompletableFuture<List<Stat>> stale = CompletableFuture.supplyAsync(() -> ftp.ls("/slow"));
+        listing.await();
+        // 读取期间的写操作使读取到的旧列表不会被缓存
+        ftp.put(new ByteArrayInputStream(new byte[1]), "/slow/a.txt");
+        written.countDown();
+        assertThat(stale.get(5, TimeUnit.SECONDS))
+                .isEmpty();
+        assertThat(ftp.ls("/slow"))
+                .hasSize(1);
+    }
+
+    @Test
+    public void immutable() {
+        final CachingFtpOperator ftp = new CachingFtpOperator(memory, 1, TimeUnit.MINUTES, 100);
+        ftp.ls("/root").get(0).setSize(-1L);
+        ftp.ls("/root").get(0).setSize(-1L);
+        assertThat(ftp.ls("/root"))
+                .extracting(Stat::getSize)
+                .doesNotContain(-1L);
+        assertThatThrownBy(() -> ftp.ls("/root").clear())
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void expireAndEvict() {
+        final CachingFtpOperator ftp = new CachingFtpOperator(memory, 50, TimeUnit.MILLISECONDS, 1);
+        ftp.ls("/root");
+        ftp.ls("/root/dir0");
+        assertThat(ftp.getEvictionCount())
+                .isEqualTo(1);
+        ThreadUtil.sleep(100);
+        memory.resetCalls();
+        ftp.ls("/root/dir0");
+        assertThat(memory.getCalls())
+                .isEqualTo(1);
+    }
+}
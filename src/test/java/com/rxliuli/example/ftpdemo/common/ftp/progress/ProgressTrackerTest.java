@@ -0,0 +1,83 @@
+package com.rxliuli.example.ftpdemo.common.ftp.progress;
+
+import com.rxliuli.example.ftpdemo.common.ftp.MemoryFtpOperator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class ProgressTrackerTest {
+    @Rule
+    public TemporaryFolder temp = new TemporaryFolder();
+
+    @Test
+    public void throttleNotifications() {
+        final List<TransferProgress> events = new ArrayList<>();
+        final ProgressTracker tracker = new ProgressTracker("/a.bin", 1000, events::add, 60_000);
+        for (int i = 0; i < 10; i++) {
+            tracker.add(100);
+        }
+        // 间隔之内不会通知
+        assertThat(events)
+                .isEmpty();
+        assertThat(tracker.finish(true))
+                .isTrue();
+        tracker.finish(false);
+
+        assertThat(events)
+                .hasSize(1);
+        final TransferProgress last = events.get(0);
+        assertThat(last.isDone())
+                .isTrue();
+        assertThat(last.isSuccess())
+                .isTrue();
+        assertThat(last.getTransferredBytes())
+                .isEqualTo(1000);
+        assertThat(last.getEtaMillis())
+                .isZero();
+        assertThat(last.getAverageBytesPerSecond())
+                .isPositive();
+    }
+
+    @Test
+    public void putAndGet() throws IOException {
+        final MemoryFtpOperator ftp = new MemoryFtpOperator();
+        final File localFile = temp.newFile("a.bin");
+        Files.write(localFile.toPath(), new byte[100_000]);
+
+        final List<TransferProgress> puts = new ArrayList<>();
+        assertThat(ftp.put(localFile, "/a.bin", puts::add))
+                .isTrue();
+        final TransferProgress put = puts.get(puts.size() - 1);
+        assertThat(put.isDone())
+                .isTrue();
+        assertThat(put.getTotalBytes())
+                .isEqualTo(100_000);
+        assertThat(put.getTransferredBytes())
+                .isEqualTo(100_000);
+
+        final List<TransferProgress> gets = new ArrayList<>();
+        assertThat(ftp.get("/a.bin", new File(temp.getRoot(), "b/a.bin"), gets::add))
+                .isTrue();
+        assertThat(gets.get(gets.size() - 1).getTransferredBytes())
+                .isEqualTo(100_000);
+
+        final List<TransferProgress> missing = new ArrayList<>();
+        assertThat(ftp.get("/none.bin", new File(temp.getRoot(), "none.bin"), missing::add))
+                .isFalse();
+        assertThat(missing)
+                .hasSize(1);
+        assertThat(missing.get(0).isSuccess())
+                .isFalse();
+    }
+}
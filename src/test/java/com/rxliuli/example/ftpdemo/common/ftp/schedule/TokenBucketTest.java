@@ -0,0 +1,116 @@
+package com.rxliuli.example.ftpdemo.common.ftp.schedule;
+
+import org.junit.Test;
+
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 使用手动推进的时钟测试令牌桶，不依赖实际经过的时间
+ *
+ * @author rxliuli
+ */
+public class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * 速率较高，这样欠款时每次等待的时间很短，等待的线程可以很快发现时钟的推进
+     */
+    private static final long RATE = 1000 * 1000;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void refill() throws InterruptedIOException {
+        final TokenBucket bucket = new TokenBucket(1000, clock::get);
+        // 桶中初始有一秒的令牌，有令牌时可以取走超过剩余数量的令牌，不足的部分记为欠款
+        bucket.acquire(TransferPriority.BULK, 1500);
+        assertThat(bucket.available())
+                .isEqualTo(-500);
+
+        clock.addAndGet(SECOND / 4);
+        assertThat(bucket.available())
+                .isEqualTo(-250);
+
+        // 最多只积攒一秒的令牌
+        clock.addAndGet(10 * SECOND);
+        assertThat(bucket.available())
+                .isEqualTo(1000);
+    }
+
+    @Test
+    public void waitForDebt() throws Exception {
+        final TokenBucket bucket = new TokenBucket(RATE, clock::get);
+        bucket.acquire(TransferPriority.BULK, RATE + 1000);
+
+        final CompletableFuture<Void> waiting = acquireAsync(bucket, TransferPriority.BULK, 1);
+        awaitTrue(() -> bucket.getWaiting() == 1);
+        assertThat(waiting)
+                .isNotDone();
+
+        // 还清欠款之后才能取得令牌
+        clock.addAndGet(SECOND);
+        waiting.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void unlimited() throws InterruptedIOException {
+        final TokenBucket bucket = new TokenBucket(0, clock::get);
+        assertThat(bucket.isUnlimited())
+                .isTrue();
+        // 不限速时时钟不推进也不会阻塞
+        bucket.acquire(TransferPriority.BULK, Long.MAX_VALUE);
+        bucket.acquire(TransferPriority.INTERACTIVE, Long.MAX_VALUE);
+    }
+
+    @Test
+    public void interactiveOvertakesBulk() throws Exception {
+        final TokenBucket bucket = new TokenBucket(RATE, clock::get);
+        bucket.acquire(TransferPriority.BULK, RATE + 1000);
+
+        // 交互式请求因为欠款而等待
+        final CompletableFuture<Void> interactive = acquireAsync(bucket, TransferPriority.INTERACTIVE, 5000);
+        awaitTrue(() -> bucket.getInteractiveWaiting() == 1);
+        // 批量请求在交互式请求等待时进入
+        final CompletableFuture<Void> bulk = acquireAsync(bucket, TransferPriority.BULK, 1);
+        awaitTrue(() -> bucket.getWaiting() == 2);
+
+        // 还清欠款之后的令牌只够交互式请求，批量请求不能抢先取走
+        clock.addAndGet(2 * SECOND / 1000);
+        interactive.get(5, TimeUnit.SECONDS);
+        assertThat(bucket.available())
+                .isEqualTo(-4000);
+        assertThat(bulk)
+                .isNotDone();
+
+        clock.addAndGet(SECOND);
+        bulk.get(5, TimeUnit.SECONDS);
+    }
+
+    private static CompletableFuture<Void> acquireAsync(TokenBucket bucket, TransferPriority priority, long bytes) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                bucket.acquire(priority, bytes);
+            } catch (InterruptedIOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 等待其它线程到达指定的状态
+     */
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + 5 * SECOND;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime())
+                    .isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.rxliuli.example.ftpdemo.common.ftp.schedule;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class TransferSchedulerTest {
+    @Test
+    public void priority() throws Exception {
+        assertThat(TransferScheduler.currentPriority())
+                .isEqualTo(TransferPriority.INTERACTIVE);
+        final Supplier<TransferPriority> inherited = TransferScheduler.withPriority(TransferPriority.BULK,
+                () -> TransferScheduler.inheritPriority(TransferScheduler::currentPriority));
+        // 执行完成之后恢复原来的优先级
+        assertThat(TransferScheduler.currentPriority())
+                .isEqualTo(TransferPriority.INTERACTIVE);
+        // 提交到其它线程执行时使用提交时的优先级
+        assertThat(CompletableFuture.supplyAsync(inherited).get())
+                .isEqualTo(TransferPriority.BULK);
+    }
+
+    @Test
+    public void wrap() throws IOException {
+        final TransferScheduler.TransferLimiter limiter = new TransferScheduler(0).limiter(0);
+        final byte[] data = new byte[3 * TransferScheduler.CHUNK_SIZE + 1];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (InputStream is = limiter.wrap(new ByteArrayInputStream(data));
+             OutputStream os = limiter.wrap(bos)) {
+            IOUtils.copy(is, os);
+        }
+        assertThat(bos.toByteArray())
+                .isEqualTo(data);
+        assertThat(limiter.wrap((InputStream) null))
+                .isNull();
+    }
+}
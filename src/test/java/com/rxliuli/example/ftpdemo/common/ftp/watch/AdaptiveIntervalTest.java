@@ -0,0 +1,34 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class AdaptiveIntervalTest {
+    @Test
+    public void next() {
+        final AdaptiveInterval interval = new AdaptiveInterval(100, 1000);
+        //没有变化时指数退避直到最大值
+        assertThat(interval.next(false, 0))
+                .isEqualTo(200);
+        assertThat(interval.next(false, 0))
+                .isEqualTo(400);
+        assertThat(interval.next(false, 0))
+                .isEqualTo(800);
+        assertThat(interval.next(false, 0))
+                .isEqualTo(1000);
+        assertThat(interval.next(false, 0))
+                .isEqualTo(1000);
+        //发现变化时恢复到最小值，扫描耗时计入间隔
+        assertThat(interval.next(true, 30))
+                .isEqualTo(70);
+        //扫描比间隔更慢时至少等待扫描耗时
+        assertThat(interval.next(true, 500))
+                .isEqualTo(500);
+        assertThat(interval.current())
+                .isEqualTo(100);
+    }
+}
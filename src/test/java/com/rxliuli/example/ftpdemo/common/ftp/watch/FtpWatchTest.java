@@ -0,0 +1,72 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.MemoryFtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class FtpWatchTest {
+    private MemoryFtpOperator ftp;
+
+    @Before
+    public void before() {
+        ftp = new MemoryFtpOperator();
+        ftp.mkdirR("/watch");
+        ftp.initWatch(new FtpWatchConfig(TimeUnit.MILLISECONDS, 20, "/watch", 1, (different, listenerMap) -> {
+        }));
+    }
+
+    @Test
+    public void watch() throws Exception {
+        final CompletableFuture<Stat> a = ftp.watch("/watch/a.txt");
+        final CompletableFuture<Stat> b = ftp.watch((Predicate<String>) path -> path.endsWith(".csv"));
+        final CompletableFuture<Stat> sub = ftp.watchPrefix("/watch/sub");
+        final CompletableFuture<Stat> cancelled = ftp.watch("/watch/never.txt");
+        cancelled.cancel(false);
+
+        ftp.put(new ByteArrayInputStream(new byte[1]), "/watch/a.txt");
+        assertThat(a.get(5, TimeUnit.SECONDS).getPath())
+                .isEqualTo("/watch/a.txt");
+        assertThat(b)
+                .isNotDone();
+        assertThat(sub)
+                .isNotDone();
+
+        ftp.put(new ByteArrayInputStream(new byte[1]), "/watch/sub/b.csv");
+        assertThat(b.get(5, TimeUnit.SECONDS).getPath())
+                .isEqualTo("/watch/sub/b.csv");
+        assertThat(sub.get(5, TimeUnit.SECONDS).getPath())
+                .startsWith("/watch/sub");
+    }
+
+    @Test
+    public void adaptive() throws Exception {
+        final MemoryFtpOperator adaptiveFtp = new MemoryFtpOperator();
+        adaptiveFtp.mkdirR("/watch");
+        adaptiveFtp.initWatch(new FtpWatchConfig(TimeUnit.MILLISECONDS, 20, "/watch", 1, (different, listenerMap) -> {
+        }).setAdaptive(true).setMaxInterval(200));
+        final CompletableFuture<Stat> a = adaptiveFtp.watch("/watch/a.txt");
+        //等待间隔退避到最大值之后再修改
+        Thread.sleep(500);
+        assertThat(a)
+                .isNotDone();
+
+        adaptiveFtp.put(new ByteArrayInputStream(new byte[1]), "/watch/a.txt");
+        assertThat(a.get(5, TimeUnit.SECONDS).getPath())
+                .isEqualTo("/watch/a.txt");
+        final CompletableFuture<Stat> b = adaptiveFtp.watch("/watch/b.txt");
+        adaptiveFtp.put(new ByteArrayInputStream(new byte[1]), "/watch/b.txt");
+        assertThat(b.get(5, TimeUnit.SECONDS).getPath())
+                .isEqualTo("/watch/b.txt");
+    }
+}
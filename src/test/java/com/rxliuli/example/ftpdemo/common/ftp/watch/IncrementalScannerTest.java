@@ -0,0 +1,61 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.MemoryFtpOperator;
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class IncrementalScannerTest {
+    private final MemoryFtpOperator ftp = new MemoryFtpOperator().trackMtime().tree("/w", 3, 3);
+    private final IncrementalScanner scanner = new IncrementalScanner(ftp, "/w", 1000);
+
+    @Test
+    public void scan() {
+        assertThat(scanner.scan())
+                .containsExactlyInAnyOrderElementsOf(ftp.lsR("/w"));
+        final int dirs = scanner.size();
+        assertThat(dirs)
+                .isEqualTo(1 + 3 + 9 + 27);
+
+        //没有变化时只列出根目录以及轮流列出的一个目录
+        ftp.resetCalls();
+        scanner.scan();
+        assertThat(ftp.getCalls())
+                .isLessThanOrEqualTo(2);
+
+        //直接子目录的变化通过根目录中的修改时间发现
+        ftp.put(new ByteArrayInputStream(new byte[1]), "/w/dir1/new.txt");
+        ftp.rm("/w/dir2/file0.txt");
+        ftp.resetCalls();
+        final List<Stat> result = scanner.scan();
+        assertThat(ftp.getCalls())
+                .isLessThan(dirs / 4);
+        assertThat(result)
+                .containsExactlyInAnyOrderElementsOf(ftp.lsR("/w"));
+    }
+
+    @Test
+    public void reconcile() {
+        scanner.scan();
+        //深层目录的修改时间不会向上传递，最多在轮流列出所有目录之后发现
+        ftp.put(new ByteArrayInputStream(new byte[1]), "/w/dir0/dir0/dir0/new.txt");
+        ftp.rm("/w/dir2/dir1/file1.txt");
+        ftp.rm("/w/dir2/dir1/dir0/file0.txt");
+        ftp.rm("/w/dir2/dir1/dir0/file1.txt");
+        ftp.rm("/w/dir2/dir1/dir0/file2.txt");
+        ftp.rmdir("/w/dir2/dir1/dir0");
+        List<Stat> result = null;
+        for (int i = 0; i <= scanner.size(); i++) {
+            result = scanner.scan();
+        }
+        assertThat(result)
+                .containsExactlyInAnyOrderElementsOf(ftp.lsR("/w"));
+    }
+}
@@ -0,0 +1,63 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author rxliuli
+ */
+public class ListenerIndexTest {
+    private final ListenerIndex index = new ListenerIndex();
+
+    private ListenerIndex.IndexedListener add(String path, boolean prefix, long deadline) {
+        final ListenerIndex.IndexedListener listener = new ListenerIndex.IndexedListener(path, prefix, new CompletableFuture<>(), deadline != 0, deadline);
+        index.add(listener);
+        return listener;
+    }
+
+    @Test
+    public void match() {
+        for (int i = 0; i < 50_000; i++) {
+            add("/w/file" + i + ".txt", false, 0);
+        }
+        final ListenerIndex.IndexedListener exact = add("/w/a/b.txt", false, 0);
+        final ListenerIndex.IndexedListener dir = add("/w/a", true, 0);
+        final ListenerIndex.IndexedListener sibling = add("/w/ab", true, 0);
+
+        assertThat(index.match("/w/a/b.txt"))
+                .containsExactlyInAnyOrder(exact, dir);
+        //匹配之后就从索引中移除
+        assertThat(index.match("/w/a/b.txt"))
+                .isEmpty();
+        assertThat(index.match("/w/ab/c.txt"))
+                .containsExactly(sibling);
+        assertThat(index.size())
+                .isEqualTo(50_000);
+    }
+
+    @Test
+    public void removeAndExpire() {
+        final ListenerIndex.IndexedListener cancelled = add("/w/a", true, 0);
+        final ListenerIndex.IndexedListener expired = add("/w/b", false, 100);
+        final ListenerIndex.IndexedListener pending = add("/w/c", false, 200);
+        cancelled.getFuture().cancel(false);
+        assertThat(index.size())
+                .isEqualTo(2);
+        assertThat(index.match("/w/a/x.txt"))
+                .isEmpty();
+
+        assertThat(index.expire(150))
+                .containsExactly(expired);
+        assertThat(index.match("/w/b"))
+                .isEmpty();
+        pending.getFuture().complete((Stat) null);
+        assertThat(index.expire(250))
+                .isEmpty();
+        assertThat(index.size())
+                .isZero();
+    }
+}
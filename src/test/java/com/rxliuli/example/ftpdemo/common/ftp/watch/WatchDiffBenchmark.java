@@ -0,0 +1,81 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.util.ListUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 比较 {@link ListUtil#different(List, List)} 与按路径比较快照的耗时
+ * 两次扫描之间修改，新增以及删除各 {@link #changes} 个文件，{@code snapshot} 包括每次扫描之后创建快照的开销，
+ * {@code snapshotDiff} 只有比较本身，使用 {@code -prof gc} 运行可以看到它分配的内存只与变化的数量有关
+ *
+ * @author rxliuli
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WatchDiffBenchmark {
+    @Param({"10000", "100000"})
+    private int size;
+    @Param({"0", "10"})
+    private int changes;
+
+    private List<Stat> oldList;
+    private List<Stat> newList;
+    private WatchSnapshot oldSnapshot;
+    private WatchSnapshot newSnapshot;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WatchDiffBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        oldList = new ArrayList<>(size);
+        newList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final String parent = "/watch/dir" + i / 100;
+            oldList.add(Stat.child(parent, "file" + i + ".txt", false, i, 1000L, null));
+            if (i < changes) {
+                //修改
+                newList.add(Stat.child(parent, "file" + i + ".txt", false, i + 1, 2000L, null));
+            } else if (i >= size - changes) {
+                //删除，同时新增一个文件
+                newList.add(Stat.child(parent, "new" + i + ".txt", false, i, 2000L, null));
+            } else {
+                //每次扫描得到的都是新的对象
+                newList.add(Stat.child(parent, "file" + i + ".txt", false, i, 1000L, null));
+            }
+        }
+        oldSnapshot = WatchSnapshot.of(oldList);
+        newSnapshot = WatchSnapshot.of(newList);
+    }
+
+    @Benchmark
+    public Map<ListUtil.ListDiffState, List<Stat>> listUtil() {
+        return ListUtil.different(oldList, newList);
+    }
+
+    @Benchmark
+    public WatchDiff snapshot() {
+        return oldSnapshot.diff(WatchSnapshot.of(newList));
+    }
+
+    @Benchmark
+    public WatchDiff snapshotDiff() {
+        return oldSnapshot.diff(newSnapshot);
+    }
+}
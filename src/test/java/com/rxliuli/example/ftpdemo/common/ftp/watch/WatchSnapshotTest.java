@@ -0,0 +1,66 @@
+package com.rxliuli.example.ftpdemo.common.ftp.watch;
+
+import com.rxliuli.example.ftpdemo.common.ftp.Stat;
+import com.rxliuli.example.ftpdemo.common.util.ListUtil;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * @author rxliuli
+ */
+public class WatchSnapshotTest {
+    private final Stat kept = Stat.child("/w", "kept.txt", false, 1, 1L, null);
+    private final Stat deleted = Stat.child("/w", "deleted.txt", false, 1, 1L, null);
+    private final Stat modified = Stat.child("/w", "modified.txt", false, 1, 1L, null);
+    private final Stat modifiedNew = Stat.child("/w", "modified.txt", false, 2, 2L, null);
+    private final Stat created = Stat.child("/w/dir", "created.txt", false, 1, 1L, null);
+
+    @Test
+    public void diff() {
+        final WatchSnapshot oldSnapshot = WatchSnapshot.of(Arrays.asList(kept, deleted, modified));
+        final WatchDiff diff = oldSnapshot.diff(WatchSnapshot.of(Arrays.asList(
+                Stat.child("/w", "kept.txt", false, 1, 1L, null), modifiedNew, created)));
+        assertThat(diff.getEvents())
+                .extracting(WatchEvent::getType, WatchEvent::getPath)
+                .containsExactlyInAnyOrder(
+                        tuple(WatchEventType.CREATED, "/w/dir/created.txt"),
+                        tuple(WatchEventType.DELETED, "/w/deleted.txt"),
+                        tuple(WatchEventType.MODIFIED, "/w/modified.txt")
+                );
+
+        final Map<ListUtil.ListDiffState, List<Stat>> map = diff.toMap();
+        assertThat(map.get(ListUtil.ListDiffState.left))
+                .containsExactlyInAnyOrder(deleted, modified);
+        assertThat(map.get(ListUtil.ListDiffState.right))
+                .containsExactlyInAnyOrder(modifiedNew, created);
+        assertThat(map.get(ListUtil.ListDiffState.common))
+                .containsExactly(kept);
+    }
+
+    @Test
+    public void unchanged() {
+        final List<Stat> list = Arrays.asList(kept, deleted);
+        assertThat(WatchSnapshot.of(list).diff(WatchSnapshot.of(list)).isEmpty())
+                .isTrue();
+    }
+
+    @Test
+    public void get() {
+        final WatchSnapshot snapshot = WatchSnapshot.of(Arrays.asList(kept, created));
+        assertThat(snapshot.get("/w/kept.txt"))
+                .isSameAs(kept);
+        assertThat(snapshot.get("/w/dir/created.txt"))
+                .isSameAs(created);
+        assertThat(snapshot.get("/w/deleted.txt"))
+                .isNull();
+        assertThat(snapshot.getStats())
+                .hasSize(2)
+                .containsExactlyInAnyOrder(kept, created);
+    }
+}